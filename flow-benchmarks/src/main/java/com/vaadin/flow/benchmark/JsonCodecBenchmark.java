@@ -0,0 +1,131 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.benchmark.UIFixture.Layout;
+import com.vaadin.flow.benchmark.UIFixture.Shape;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.ConstantPoolKey;
+import com.vaadin.flow.internal.JsonCodec;
+import com.vaadin.flow.internal.change.MapPutChange;
+import com.vaadin.flow.internal.change.NodeChange;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Measures the throughput of encoding values and node changes with
+ * {@link JsonCodec}.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private final List<Object> values = new ArrayList<>();
+
+    private final List<NodeChange> changes = new ArrayList<>();
+
+    private ConstantPool constantPool;
+
+    /**
+     * Creates a mix of values and changes typically found in responses.
+     */
+    @Setup
+    public void setup() {
+        UI ui = UIFixture.createUI();
+        Layout root = new Layout();
+        List<Element> leaves = UIFixture.populate(root, Shape.WIDE, SIZE);
+        ui.add(root);
+        constantPool = ui.getInternals().getConstantPool();
+
+        JsonObject object = Json.createObject();
+        object.put("key", "value");
+        object.put("number", 42);
+
+        for (int i = 0; i < SIZE; i++) {
+            Element leaf = leaves.get(i % leaves.size());
+            values.add("value" + i);
+            values.add(Integer.valueOf(i));
+            values.add(Double.valueOf(i / 3.0));
+            values.add(Boolean.valueOf(i % 2 == 0));
+            values.add(leaf);
+            values.add(Json.createArray());
+            values.add(object);
+
+            ElementPropertyMap properties = leaf.getNode()
+                    .getFeature(ElementPropertyMap.class);
+            changes.add(new MapPutChange(properties, "value", "value" + i));
+            changes.add(new MapPutChange(properties, "index",
+                    Double.valueOf(i)));
+            changes.add(new MapPutChange(properties, "listener",
+                    new ConstantPoolKey(object)));
+        }
+    }
+
+    /**
+     * Encodes all values with type information.
+     *
+     * @param blackhole
+     *            the blackhole consuming the encoded values
+     */
+    @Benchmark
+    public void encodeWithTypeInfo(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(JsonCodec.encodeWithTypeInfo(value));
+        }
+    }
+
+    /**
+     * Encodes all node changes as they would be written to a response.
+     *
+     * @param blackhole
+     *            the blackhole consuming the encoded changes
+     */
+    @Benchmark
+    public void encodeChanges(Blackhole blackhole) {
+        for (NodeChange change : changes) {
+            blackhole.consume(change.toJson(constantPool));
+        }
+    }
+}
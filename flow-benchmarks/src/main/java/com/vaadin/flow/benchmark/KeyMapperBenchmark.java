@@ -0,0 +1,172 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.vaadin.flow.data.provider.CompactKeyMapper;
+import com.vaadin.flow.data.provider.DataKeyMapper;
+import com.vaadin.flow.data.provider.KeyMapper;
+
+/**
+ * Compares {@link KeyMapper} with {@link CompactKeyMapper}.
+ * <p>
+ * The JMH benchmarks measure the throughput of mapping items to keys and
+ * resolving the keys again, and of scrolling through a data set so that each
+ * item is mapped once and removed again when its range is passivated. Running
+ * this class as a regular Java application instead prints the retained size
+ * of both mappers, excluding the mapped items themselves, both when all items
+ * are mapped and after most of them have been removed again.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyMapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({ "1000", "50000" })
+    int size;
+
+    @Param({ "KeyMapper", "CompactKeyMapper" })
+    String mapper;
+
+    private Integer[] items;
+
+    private String[] keys;
+
+    private DataKeyMapper<Integer> keyMapper;
+
+    /**
+     * Maps {@link #size} items.
+     */
+    @Setup
+    public void setup() {
+        items = createItems(size);
+        keyMapper = createMapper(mapper);
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyMapper.key(items[i]);
+        }
+    }
+
+    /**
+     * Gets the key of each mapped item and resolves it again, like when
+     * sending an item to the client and handling an event for it.
+     *
+     * @param blackhole
+     *            the blackhole consuming the keys and items
+     */
+    @Benchmark
+    public void keyAndGet(Blackhole blackhole) {
+        for (Integer item : items) {
+            blackhole.consume(keyMapper.get(keyMapper.key(item)));
+        }
+    }
+
+    /**
+     * Maps the items of a page and removes the items of the page before it,
+     * like when scrolling through a grid.
+     *
+     * @param blackhole
+     *            the blackhole consuming the keys
+     */
+    @Benchmark
+    public void scroll(Blackhole blackhole) {
+        DataKeyMapper<Integer> scrolling = createMapper(mapper);
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(scrolling.key(items[i]));
+            if (i >= PAGE_SIZE) {
+                scrolling.remove(items[i - PAGE_SIZE]);
+            }
+        }
+    }
+
+    /**
+     * Prints the retained size of both mappers for a range of item counts.
+     *
+     * @param args
+     *            ignored
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %15s %17s %15s %17s%n", "items", "KeyMapper",
+                "CompactKeyMapper", "KeyMapper 10%", "CompactKeyMapper 10%");
+        for (int count : new int[] { 1000, 10000, 50000, 100000 }) {
+            Integer[] items = createItems(count);
+            long itemsSize = GraphLayout.parseInstance((Object) items)
+                    .totalSize();
+
+            long[] sizes = new long[4];
+            int column = 0;
+            for (String name : new String[] { "KeyMapper",
+                    "CompactKeyMapper" }) {
+                DataKeyMapper<Integer> keyMapper = createMapper(name);
+                for (Integer item : items) {
+                    keyMapper.key(item);
+                }
+                sizes[column] = GraphLayout.parseInstance(keyMapper, items)
+                        .totalSize() - itemsSize;
+                // Passivate all but every tenth item
+                for (int i = 0; i < count; i++) {
+                    if (i % 10 != 0) {
+                        keyMapper.remove(items[i]);
+                    }
+                }
+                sizes[column + 2] = GraphLayout.parseInstance(keyMapper, items)
+                        .totalSize() - itemsSize;
+                column++;
+            }
+            System.out.printf("%10d %15d %17d %15d %17d%n", count, sizes[0],
+                    sizes[1], sizes[2], sizes[3]);
+        }
+    }
+
+    private static Integer[] createItems(int count) {
+        Integer[] items = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            // Avoid the shared instances of the Integer cache
+            items[i] = new Integer(i);
+        }
+        return items;
+    }
+
+    private static DataKeyMapper<Integer> createMapper(String name) {
+        if ("CompactKeyMapper".equals(name)) {
+            return new CompactKeyMapper<>();
+        }
+        return new KeyMapper<>();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateNodeIdMap;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * Compares the boxed {@link HashMap} previously used by {@link StateTree} to
+ * look up nodes by id with {@link StateNodeIdMap}.
+ * <p>
+ * The JMH benchmarks measure lookup throughput. Running this class as a
+ * regular Java application instead prints the retained size of both
+ * registries, excluding the nodes themselves.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeRegistryBenchmark {
+
+    @Param({ "1000", "50000" })
+    int size;
+
+    private StateNode[] nodes;
+
+    private int[] lookupOrder;
+
+    private Map<Integer, StateNode> hashMap;
+
+    private StateNodeIdMap idMap;
+
+    /**
+     * Registers {@link #size} nodes with sequential ids in both registries.
+     */
+    @Setup
+    public void setup() {
+        nodes = createNodes(size);
+        hashMap = createHashMap(nodes);
+        idMap = createIdMap(nodes);
+
+        // RPCs target arbitrary nodes, so look them up in random order
+        List<Integer> ids = IntStream.rangeClosed(1, size).boxed()
+                .collect(Collectors.toList());
+        Collections.shuffle(ids, new Random(size));
+        lookupOrder = ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Looks up all nodes from the hash map, in random order.
+     *
+     * @param blackhole
+     *            the blackhole consuming the nodes
+     */
+    @Benchmark
+    public void hashMapLookup(Blackhole blackhole) {
+        for (int id : lookupOrder) {
+            blackhole.consume(hashMap.get(id));
+        }
+    }
+
+    /**
+     * Looks up all nodes from the id map, in random order.
+     *
+     * @param blackhole
+     *            the blackhole consuming the nodes
+     */
+    @Benchmark
+    public void idMapLookup(Blackhole blackhole) {
+        for (int id : lookupOrder) {
+            blackhole.consume(idMap.get(id));
+        }
+    }
+
+    /**
+     * Prints the retained size of both registries for a range of node counts.
+     *
+     * @param args
+     *            ignored
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %15s %15s%n", "nodes", "HashMap",
+                "StateNodeIdMap");
+        for (int count : new int[] { 1000, 10000, 50000, 100000 }) {
+            // Register the same node for all ids so that the size of the
+            // nodes themselves can be subtracted from the total
+            StateNode[] nodes = new StateNode[count];
+            Arrays.fill(nodes, new StateNode());
+            long nodeSize = GraphLayout.parseInstance(nodes[0]).totalSize();
+
+            long hashMapSize = GraphLayout.parseInstance(createHashMap(nodes))
+                    .totalSize() - nodeSize;
+            long idMapSize = GraphLayout.parseInstance(createIdMap(nodes))
+                    .totalSize() - nodeSize;
+            System.out.printf("%10d %15d %15d%n", count, hashMapSize,
+                    idMapSize);
+        }
+    }
+
+    private static StateNode[] createNodes(int count) {
+        StateNode[] nodes = new StateNode[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = new StateNode();
+        }
+        return nodes;
+    }
+
+    private static Map<Integer, StateNode> createHashMap(StateNode[] nodes) {
+        Map<Integer, StateNode> map = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) {
+            map.put(i + 1, nodes[i]);
+        }
+        return map;
+    }
+
+    private static StateNodeIdMap createIdMap(StateNode[] nodes) {
+        StateNodeIdMap map = new StateNodeIdMap();
+        for (int i = 0; i < nodes.length; i++) {
+            map.put(i + 1, nodes[i]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.benchmark.UIFixture.Layout;
+import com.vaadin.flow.benchmark.UIFixture.Shape;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinServletService;
+import com.vaadin.flow.server.communication.ServerRpcHandler;
+import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Measures {@link ServerRpcHandler#handleRpc} for messages containing a mix of
+ * DOM events and property synchronizations.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerRpcHandlerBenchmark {
+
+    private static final int SIZE = 1000;
+
+    @Param({ "1", "50" })
+    int invocations;
+
+    private UI ui;
+
+    private VaadinServletRequest request;
+
+    private ServerRpcHandler handler;
+
+    private String message;
+
+    /**
+     * Builds a UI with listeners on all leaves and the message to handle.
+     */
+    @Setup
+    public void setup() {
+        ui = UIFixture.createUI();
+        Layout root = new Layout();
+        List<Element> leaves = UIFixture.populate(root, Shape.WIDE, SIZE);
+        leaves.forEach(leaf -> {
+            leaf.addEventListener("click", event -> {
+            });
+            leaf.addPropertyChangeListener("value", "change", event -> {
+            });
+        });
+        ui.add(root);
+
+        request = new VaadinServletRequest(
+                Mockito.mock(HttpServletRequest.class),
+                (VaadinServletService) ui.getSession().getService());
+        handler = new ServerRpcHandler();
+
+        int featureId = NodeFeatureRegistry.getId(ElementPropertyMap.class);
+        JsonArray rpc = Json.createArray();
+        for (int i = 0; i < invocations; i++) {
+            Element leaf = leaves.get(i % leaves.size());
+            JsonObject invocation = Json.createObject();
+            invocation.put(JsonConstants.RPC_NODE, leaf.getNode().getId());
+            if (i % 2 == 0) {
+                invocation.put(JsonConstants.RPC_TYPE,
+                        JsonConstants.RPC_TYPE_EVENT);
+                invocation.put(JsonConstants.RPC_EVENT_TYPE, "click");
+                invocation.put(JsonConstants.RPC_EVENT_DATA,
+                        Json.createObject());
+            } else {
+                invocation.put(JsonConstants.RPC_TYPE,
+                        JsonConstants.RPC_TYPE_MAP_SYNC);
+                invocation.put(JsonConstants.RPC_FEATURE, featureId);
+                invocation.put(JsonConstants.RPC_PROPERTY, "value");
+                invocation.put(JsonConstants.RPC_PROPERTY_VALUE,
+                        "value" + i);
+            }
+            rpc.set(rpc.length(), invocation);
+        }
+
+        JsonObject json = Json.createObject();
+        json.put(ApplicationConstants.CSRF_TOKEN, ui.getCsrfToken());
+        json.put(ApplicationConstants.SERVER_SYNC_ID, 0);
+        json.put(ApplicationConstants.CLIENT_TO_SERVER_ID, 0);
+        json.put(ApplicationConstants.RPC_INVOCATIONS, rpc);
+        message = json.toJson();
+    }
+
+    /**
+     * Reads, verifies and handles the message.
+     *
+     * @throws IOException
+     *             if reading the message fails
+     * @throws InvalidUIDLSecurityKeyException
+     *             if the CSRF token doesn't match
+     */
+    @Benchmark
+    public void handleRpc()
+            throws IOException, InvalidUIDLSecurityKeyException {
+        // Always accept the message as the next one from the client
+        ui.getInternals().setLastProcessedClientToServerId(-1, null);
+        handler.handleRpc(ui, new StringReader(message), request);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.benchmark.UIFixture.Layout;
+import com.vaadin.flow.benchmark.UIFixture.Shape;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * Measures {@link StateTree#collectChanges(java.util.function.Consumer)} for
+ * large trees with a varying amount of attribute and property churn.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateTreeBenchmark {
+
+    @Param({ "1000", "10000" })
+    int size;
+
+    @Param({ "WIDE", "DEEP" })
+    Shape shape;
+
+    @Param({ "0", "10", "500" })
+    int changedElements;
+
+    private StateTree stateTree;
+
+    private List<Element> leaves;
+
+    private int round;
+
+    /**
+     * Builds the tree and flushes the changes of the initial attach.
+     */
+    @Setup
+    public void setup() {
+        UI ui = UIFixture.createUI();
+        Layout root = new Layout();
+        leaves = UIFixture.populate(root, shape, size);
+        ui.add(root);
+
+        stateTree = ui.getInternals().getStateTree();
+        stateTree.collectChanges(change -> {
+        });
+    }
+
+    /**
+     * Changes {@link #changedElements} leaves and collects the resulting
+     * changes.
+     *
+     * @param blackhole
+     *            the blackhole consuming the changes
+     */
+    @Benchmark
+    public void collectChanges(Blackhole blackhole) {
+        round++;
+        UIFixture.churn(leaves, round * changedElements, changedElements,
+                round);
+        stateTree.collectChanges(blackhole::consume);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasComponents;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+import com.vaadin.tests.util.MockUI;
+
+/**
+ * Builds realistic {@link UI} instances for the benchmarks: a UI bound to a
+ * locked session of an initialized service, populated with a configurable
+ * component hierarchy.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public final class UIFixture {
+
+    /**
+     * The shape of the generated component hierarchy.
+     */
+    public enum Shape {
+        /**
+         * Rows of ten cells each, similar to a grid or a form.
+         */
+        WIDE,
+        /**
+         * Chains of nested layouts, similar to deeply composed views.
+         */
+        DEEP;
+    }
+
+    /**
+     * A simple layout component.
+     */
+    @Tag("div")
+    public static class Layout extends Component implements HasComponents {
+    }
+
+    /**
+     * A simple leaf component.
+     */
+    @Tag("span")
+    public static class Label extends Component {
+
+        /**
+         * Creates a new label with the given text.
+         *
+         * @param text
+         *            the text content
+         */
+        public Label(String text) {
+            getElement().setText(text);
+        }
+    }
+
+    private static final int ROW_SIZE = 10;
+
+    private static final int CHAIN_DEPTH = 50;
+
+    private UIFixture() {
+        // Only static helpers
+    }
+
+    /**
+     * Creates a new UI attached to a locked session. The deployment
+     * configuration is in production mode so that no debug data is added to
+     * the responses.
+     *
+     * @return a new UI, not <code>null</code>
+     */
+    public static UI createUI() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setProductionMode(true);
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+        service.init();
+        VaadinSession session = new AlwaysLockedVaadinSession(service);
+        session.setConfiguration(configuration);
+        return new MockUI(session);
+    }
+
+    /**
+     * Populates the given parent with approximately {@code size} components
+     * arranged according to {@code shape}.
+     *
+     * @param parent
+     *            the parent to add components to
+     * @param shape
+     *            the shape of the hierarchy
+     * @param size
+     *            the approximate number of components to create
+     * @return the elements of all created leaf components, in creation order
+     */
+    public static List<Element> populate(HasComponents parent, Shape shape,
+            int size) {
+        List<Element> leaves = new ArrayList<>(size);
+        switch (shape) {
+        case WIDE:
+            for (int row = 0; row < size / (ROW_SIZE + 1); row++) {
+                Layout rowLayout = new Layout();
+                for (int cell = 0; cell < ROW_SIZE; cell++) {
+                    Label label = new Label(row + ":" + cell);
+                    label.getElement().setAttribute("class", "cell");
+                    rowLayout.add(label);
+                    leaves.add(label.getElement());
+                }
+                parent.add(rowLayout);
+            }
+            break;
+        case DEEP:
+            for (int chain = 0; chain < size / (CHAIN_DEPTH + 1); chain++) {
+                Layout chainRoot = new Layout();
+                Layout current = chainRoot;
+                for (int depth = 1; depth < CHAIN_DEPTH; depth++) {
+                    Layout child = new Layout();
+                    current.add(child);
+                    current = child;
+                }
+                Label label = new Label(String.valueOf(chain));
+                current.add(label);
+                leaves.add(label.getElement());
+                parent.add(chainRoot);
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+        return leaves;
+    }
+
+    /**
+     * Changes an attribute and a property of {@code count} elements, picked
+     * round-robin from {@code elements} starting from {@code offset}.
+     *
+     * @param elements
+     *            the elements to change
+     * @param offset
+     *            the index of the first element to change
+     * @param count
+     *            the number of elements to change
+     * @param value
+     *            the value to set
+     */
+    public static void churn(List<Element> elements, int offset, int count,
+            int value) {
+        int size = elements.size();
+        for (int i = 0; i < count; i++) {
+            Element element = elements.get((offset + i) % size);
+            element.setAttribute("title", String.valueOf(value));
+            element.setProperty("value", value);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.benchmark.UIFixture.Layout;
+import com.vaadin.flow.benchmark.UIFixture.Shape;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.communication.UidlWriter;
+
+/**
+ * Measures the latency of creating and serializing a UIDL response with
+ * {@link UidlWriter#createUidl(UI, boolean)}, both for the initial render of a
+ * large component hierarchy and for incremental updates to it.
+ * <p>
+ * Run with {@code -prof gc} to also get the allocation rate per response.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UidlWriterBenchmark {
+
+    /**
+     * A UI populated with a component hierarchy whose initial state has
+     * already been written.
+     */
+    @State(Scope.Thread)
+    public static class PopulatedUI {
+
+        @Param({ "1000", "10000" })
+        int size;
+
+        @Param({ "WIDE", "DEEP" })
+        Shape shape;
+
+        UI ui;
+
+        Layout root;
+
+        List<Element> leaves;
+
+        /**
+         * Builds the UI and writes the response for the initial attach.
+         */
+        @Setup
+        public void setup() {
+            ui = UIFixture.createUI();
+            root = new Layout();
+            leaves = UIFixture.populate(root, shape, size);
+            ui.add(root);
+
+            new UidlWriter().createUidl(ui, false);
+        }
+    }
+
+    /**
+     * A UI whose component hierarchy is detached before each invocation, so
+     * that reattaching it produces its full state as if rendered for the
+     * first time.
+     */
+    @State(Scope.Thread)
+    public static class DetachedUI extends PopulatedUI {
+
+        /**
+         * Detaches the component hierarchy and flushes the detach changes.
+         */
+        @Setup(Level.Invocation)
+        public void detachHierarchy() {
+            ui.remove(root);
+            new UidlWriter().createUidl(ui, false);
+        }
+    }
+
+    /**
+     * The number of leaves to change before each incremental response.
+     */
+    @State(Scope.Thread)
+    public static class Churn {
+
+        @Param({ "10", "500" })
+        int changedElements;
+
+        int round;
+    }
+
+    /**
+     * Writes the response containing the full component hierarchy.
+     *
+     * @param state
+     *            the UI to render
+     * @return the response JSON
+     */
+    @Benchmark
+    public String initialRender(DetachedUI state) {
+        state.ui.add(state.root);
+        return new UidlWriter().createUidl(state.ui, false).toJson();
+    }
+
+    /**
+     * Writes the response after some of the leaves have been changed.
+     *
+     * @param state
+     *            the UI to update
+     * @param churn
+     *            the amount of leaves to change
+     * @return the response JSON
+     */
+    @Benchmark
+    public String incrementalUpdate(PopulatedUI state, Churn churn) {
+        int round = ++churn.round;
+        UIFixture.churn(state.leaves, round * churn.changedElements,
+                churn.changedElements, round);
+        return new UidlWriter().createUidl(state.ui, false).toJson();
+    }
+
+    /**
+     * Streams the response containing the full component hierarchy with
+     * {@link UidlWriter#writeUidl(UI, boolean, java.io.Writer)}.
+     *
+     * @param state
+     *            the UI to render
+     * @return the response JSON
+     * @throws IOException
+     *             never thrown when writing to a string
+     */
+    @Benchmark
+    public String initialRenderStreaming(DetachedUI state) throws IOException {
+        state.ui.add(state.root);
+        StringWriter writer = new StringWriter();
+        new UidlWriter().writeUidl(state.ui, false, writer);
+        return writer.toString();
+    }
+}
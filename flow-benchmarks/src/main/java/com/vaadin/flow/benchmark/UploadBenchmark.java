@@ -0,0 +1,215 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.benchmark.UIFixture.Label;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.StreamReceiver;
+import com.vaadin.flow.server.StreamVariable;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.communication.StreamReceiverHandler;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+
+/**
+ * Measures the throughput of receiving an uploaded file with
+ * {@link StreamReceiverHandler}, for different upload buffer sizes. The
+ * uploaded data arrives in chunks of 8 kB, like from a servlet container.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({ "1048576", "33554432" })
+    int size;
+
+    @Param({ "4096", "65536" })
+    int bufferSize;
+
+    @Param({ "false", "true" })
+    boolean listenProgress;
+
+    private byte[] data;
+
+    private VaadinSession session;
+
+    private StreamReceiver receiver;
+
+    private StateNode owner;
+
+    private VaadinRequest request;
+
+    private VaadinResponse response;
+
+    private Handler handler;
+
+    /**
+     * Exposes the upload handling of a single request.
+     */
+    private static class Handler extends StreamReceiverHandler {
+        private void upload(VaadinSession session, VaadinRequest request,
+                VaadinResponse response, StreamReceiver receiver,
+                StateNode owner, long contentLength) throws IOException {
+            doHandleXhrFilePost(session, request, response, receiver, owner,
+                    contentLength);
+        }
+    }
+
+    /**
+     * Writes the received data to a black hole.
+     */
+    private class Variable implements StreamVariable {
+        private final Blackhole blackhole;
+
+        private Variable(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    blackhole.consume(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    blackhole.consume(b);
+                    blackhole.consume(len);
+                }
+            };
+        }
+
+        @Override
+        public boolean listenProgress() {
+            return listenProgress;
+        }
+
+        @Override
+        public void onProgress(StreamingProgressEvent event) {
+            blackhole.consume(event.getBytesReceived());
+        }
+
+        @Override
+        public void streamingStarted(StreamingStartEvent event) {
+        }
+
+        @Override
+        public void streamingFinished(StreamingEndEvent event) {
+        }
+
+        @Override
+        public void streamingFailed(StreamingErrorEvent event) {
+        }
+
+        @Override
+        public boolean isInterrupted() {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the uploaded data and a UI with a component receiving it.
+     *
+     * @param blackhole
+     *            the black hole consuming the received data
+     * @throws IOException
+     *             if setting up the mock request fails
+     */
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+
+        UI ui = UIFixture.createUI();
+        session = ui.getSession();
+        ((MockDeploymentConfiguration) session.getConfiguration())
+                .setApplicationOrSystemProperty(
+                        Constants.SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE,
+                        String.valueOf(bufferSize));
+        Label label = new Label("upload");
+        ui.add(label);
+        owner = label.getElement().getNode();
+        receiver = new StreamReceiver(owner, "upload",
+                new Variable(blackhole));
+
+        request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getInputStream())
+                .thenAnswer(invocation -> createInputStream());
+        response = Mockito.mock(VaadinResponse.class);
+        Mockito.when(response.getOutputStream())
+                .thenAnswer(invocation -> new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+                });
+        handler = new Handler();
+    }
+
+    private InputStream createInputStream() {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, CHUNK_SIZE));
+            }
+        };
+    }
+
+    /**
+     * Receives the whole upload.
+     *
+     * @throws IOException
+     *             if the upload fails
+     */
+    @Benchmark
+    public void upload() throws IOException {
+        handler.upload(session, request, response, receiver, owner, size);
+    }
+}
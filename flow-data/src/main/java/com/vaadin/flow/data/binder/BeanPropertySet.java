@@ -34,6 +34,7 @@ import java.util.stream.Stream;
 
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.BeanUtil;
+import com.vaadin.flow.internal.MethodInvoker;
 
 /**
  * A {@link PropertySet} that uses reflection to find bean properties.
@@ -513,7 +514,7 @@ public class BeanPropertySet<T> implements PropertySet<T> {
     private static Object invokeWrapExceptions(Method method, Object target,
             Object... parameters) {
         try {
-            return method.invoke(target, parameters);
+            return MethodInvoker.get(method).invoke(target, parameters);
         } catch (IllegalAccessException | InvocationTargetException e) {
             throw new RuntimeException(e);
         }
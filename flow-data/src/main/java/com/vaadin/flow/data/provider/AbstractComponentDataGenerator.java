@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,7 +26,12 @@ import com.vaadin.flow.dom.Element;
 /**
  * Abstract class used as base for DataGenerators that need to manage the
  * lifecycle of components, according to what items are requested or destroyed.
- * 
+ * <p>
+ * Optionally, components of destroyed items can be kept in a bounded pool of
+ * recycled components, see {@link #setRecycledComponentPoolSize(int)}. A new
+ * item is then rendered by updating a recycled component, which stays attached
+ * to the container, instead of creating a new component and a new client side
+ * element for it.
  * 
  * @author Vaadin Ltd
  * @since 1.0.
@@ -37,6 +44,10 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    private final Deque<Component> recycledComponents = new ArrayDeque<>();
+
+    private int recycledComponentPoolSize = 0;
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -58,7 +69,11 @@ public abstract class AbstractComponentDataGenerator<T>
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
         if (renderedComponent != null) {
-            renderedComponent.getElement().removeFromParent();
+            if (recycledComponents.size() < recycledComponentPoolSize) {
+                recycledComponents.push(renderedComponent);
+            } else {
+                renderedComponent.getElement().removeFromParent();
+            }
         }
     }
 
@@ -67,6 +82,76 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.values().forEach(
                 component -> component.getElement().removeFromParent());
         renderedComponents.clear();
+        clearRecycledComponents();
+    }
+
+    /**
+     * Sets the maximum number of components of destroyed items to keep for
+     * rendering other items. Recycled components stay attached to the
+     * container. They are reused through {@link #updateComponent(Component,
+     * Object)}, so recycling is only useful if that method updates the given
+     * component instead of creating a new one, for instance when using a
+     * {@link com.vaadin.flow.data.renderer.ComponentRenderer} with an update
+     * function.
+     * <p>
+     * By default, the pool size is <code>0</code> and components of destroyed
+     * items are removed from the container.
+     *
+     * @param recycledComponentPoolSize
+     *            the maximum number of recycled components, not negative
+     */
+    public void setRecycledComponentPoolSize(int recycledComponentPoolSize) {
+        if (recycledComponentPoolSize < 0) {
+            throw new IllegalArgumentException(
+                    "Pool size cannot be negative");
+        }
+        this.recycledComponentPoolSize = recycledComponentPoolSize;
+        while (recycledComponents.size() > recycledComponentPoolSize) {
+            recycledComponents.pop().getElement().removeFromParent();
+        }
+    }
+
+    /**
+     * Gets the maximum number of components of destroyed items to keep for
+     * rendering other items.
+     *
+     * @return the maximum number of recycled components
+     * @see #setRecycledComponentPoolSize(int)
+     */
+    public int getRecycledComponentPoolSize() {
+        return recycledComponentPoolSize;
+    }
+
+    /**
+     * Gets a component representing the given item, registered for the given
+     * item key. A recycled component is updated for the item if there is one,
+     * otherwise a new component is created.
+     *
+     * @param itemKey
+     *            the key of the model item
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return the registered component, not <code>null</code>
+     */
+    protected Component createOrRecycleComponent(String itemKey, T item) {
+        Component recycled = recycledComponents.poll();
+        Component component;
+        if (recycled == null) {
+            component = createComponent(item);
+        } else {
+            component = updateComponent(recycled, item);
+            if (component != recycled) {
+                recycled.getElement().removeFromParent();
+            }
+        }
+        registerRenderedComponent(itemKey, component);
+        return component;
+    }
+
+    private void clearRecycledComponents() {
+        recycledComponents.forEach(
+                component -> component.getElement().removeFromParent());
+        recycledComponents.clear();
     }
 
     /**
@@ -125,7 +210,11 @@ public abstract class AbstractComponentDataGenerator<T>
             Component component) {
 
         Element element = component.getElement();
-        getContainer().appendChild(element);
+        Element container = getContainer();
+        // Recycled components are already attached to the container
+        if (!container.equals(element.getParent())) {
+            container.appendChild(element);
+        }
         renderedComponents.put(itemKey, component);
     }
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * A data provider that fetches items and sizes asynchronously, for back ends
+ * with a high latency.
+ * <p>
+ * {@link DataCommunicator} starts the queries of an asynchronous data provider
+ * without waiting for them to complete, so that the session lock is not held
+ * while the back end is queried. The results are applied through
+ * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)
+ * UI.access} once they are available, and sent to the client with the next
+ * response or push. A query that is still running when the client requests a
+ * different range is cancelled. Server push should be enabled to get the
+ * results to the client without waiting for the next request.
+ * <p>
+ * The synchronous {@link #fetch(Query)} and {@link #size(Query)} methods wait
+ * for the result of the corresponding asynchronous method.
+ * <p>
+ * Hierarchical components only use the synchronous methods: a
+ * {@link com.vaadin.flow.data.provider.hierarchy.HierarchicalDataCommunicator
+ * HierarchicalDataCommunicator} waits for each query to complete while the
+ * session lock is held, and logs a warning when an asynchronous data provider
+ * is set for it. The returned futures must then not depend on the session
+ * lock, for instance by completing through
+ * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)
+ * UI.access}, since they would never complete.
+ *
+ * @param <T>
+ *            data type
+ * @param <F>
+ *            filter type
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public interface AsyncDataProvider<T, F> extends DataProvider<T, F> {
+
+    /**
+     * Starts fetching data based on the given query. The stream of the
+     * returned future must obey the same rules as the stream returned by
+     * {@link #fetch(Query)}.
+     * <p>
+     * The query is not necessarily used in the thread that calls this method.
+     * Cancelling the returned future should cancel the query if possible.
+     *
+     * @param query
+     *            given query to request data with
+     * @return a future for the result of the query, not <code>null</code>
+     */
+    CompletableFuture<Stream<T>> fetchAsync(Query<T, F> query);
+
+    /**
+     * Starts getting the amount of data in this data provider for the given
+     * query.
+     *
+     * @param query
+     *            given query to request the count for
+     * @return a future for the size of the data provider, not
+     *         <code>null</code>
+     */
+    CompletableFuture<Integer> sizeAsync(Query<T, F> query);
+
+    @Override
+    default Stream<T> fetch(Query<T, F> query) {
+        return fetchAsync(query).join();
+    }
+
+    @Override
+    default int size(Query<T, F> query) {
+        return sizeAsync(query).join().intValue();
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
+
+/**
+ * A back end data provider that caches the items and sizes returned by another
+ * back end data provider, so that typical scrolling patterns are served from
+ * memory instead of querying the back end for each requested range.
+ * <p>
+ * Items are fetched and cached in pages of {@link #setPageSize(int) a given
+ * size}. When a page is missing, the following pages are fetched in the same
+ * query, or the preceding pages if the previous request was for a later
+ * range, see {@link #setPrefetchPages(int)}. The most recently used pages and
+ * sizes are kept for each combination of filter and sorting, up to
+ * {@link #setMaxCachedPages(int) a given number of pages}.
+ * <p>
+ * The cache is cleared when the wrapped data provider is refreshed, also when
+ * {@link #refreshAll()} or {@link #setSortOrders(List)} is called for this
+ * data provider. When a single item is refreshed, it replaces the cached item
+ * with the same {@link #getId(Object) id}. Changes in the back end are thus
+ * only visible after a refresh. Events fired by the wrapped data provider are
+ * passed on to the listeners of this data provider.
+ * <p>
+ * The cache may be shared between UIs and sessions. Cache access is
+ * synchronized, but the wrapped data provider is queried without holding any
+ * lock. Results of queries running while the cache is cleared are not cached.
+ * The scrolling direction used for prefetching is detected from consecutive
+ * fetches regardless of which UI they come from, so UIs scrolling the same
+ * shared provider in different directions at the same time get less benefit
+ * from prefetching.
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public class CachingDataProvider<T, F> extends AbstractDataProvider<T, F>
+        implements BackEndDataProvider<T, F> {
+
+    private final BackEndDataProvider<T, F> dataProvider;
+
+    private int pageSize = 50;
+    private int prefetchPages = 2;
+    private int maxCachedPages = 100;
+
+    // Guarded by synchronizing on pages
+    private final LruCache<PageKey, List<T>> pages = new LruCache<>(
+            maxCachedPages);
+    private final LruCache<QueryKey, Integer> sizes = new LruCache<>(
+            maxCachedPages);
+    // Incremented when cached data may be outdated, guarded by pages
+    private int cacheGeneration;
+
+    // Shared by all callers, see the class documentation
+    private volatile int lastFirstPage;
+
+    /**
+     * A map evicting the least recently used entry when the size limit is
+     * exceeded.
+     */
+    private static class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private int maxSize;
+
+        private LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    /**
+     * Identifies the filter and sorting of a query.
+     */
+    private static final class QueryKey implements Serializable {
+        private final Object filter;
+        private final List<String> sortOrders;
+        private final Comparator<?> inMemorySorting;
+
+        private QueryKey(Query<?, ?> query) {
+            filter = query.getFilter().orElse(null);
+            // Sort order lists may be mutated by the caller, copy the values
+            sortOrders = query.getSortOrders().stream()
+                    .map(order -> order.getSorted() + " "
+                            + order.getDirection())
+                    .collect(Collectors.toList());
+            inMemorySorting = query.getInMemorySorting();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) obj;
+            return Objects.equals(filter, other.filter)
+                    && sortOrders.equals(other.sortOrders)
+                    && inMemorySorting == other.inMemorySorting;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, sortOrders);
+        }
+    }
+
+    /**
+     * Identifies a page of the items of a query.
+     */
+    private static final class PageKey implements Serializable {
+        private final QueryKey query;
+        private final int page;
+
+        private PageKey(QueryKey query, int page) {
+            this.query = query;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PageKey)) {
+                return false;
+            }
+            PageKey other = (PageKey) obj;
+            return page == other.page && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + page;
+        }
+    }
+
+    /**
+     * Creates a new caching data provider for the given data provider.
+     *
+     * @param dataProvider
+     *            the data provider to cache, not <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public CachingDataProvider(BackEndDataProvider<T, F> dataProvider) {
+        this.dataProvider = Objects.requireNonNull(dataProvider,
+                "The wrapped data provider cannot be null.");
+        dataProvider.addDataProviderListener(event -> {
+            if (event instanceof DataRefreshEvent) {
+                T item = ((DataRefreshEvent<T>) event).getItem();
+                replaceCachedItem(item);
+                fireEvent(new DataRefreshEvent<>(this, item));
+            } else {
+                clearCache();
+                fireEvent(new DataChangeEvent<>(this));
+            }
+        });
+    }
+
+    @Override
+    public Stream<T> fetch(Query<T, F> query) {
+        int offset = query.getOffset();
+        int limit = query.getLimit();
+        if (limit <= 0) {
+            return Stream.empty();
+        }
+        if (limit > (long) pageSize * maxCachedPages) {
+            // Would not fit in the cache anyway
+            return dataProvider.fetch(query);
+        }
+
+        int generation = getCacheGeneration();
+        QueryKey key = new QueryKey(query);
+        int firstPage = offset / pageSize;
+        int lastPage = (int) (((long) offset + limit - 1) / pageSize);
+        boolean backwards = firstPage < lastFirstPage;
+        lastFirstPage = firstPage;
+
+        List<T> items = new ArrayList<>();
+        for (int page = firstPage; page <= lastPage; page++) {
+            List<T> pageItems = get(pages, new PageKey(key, page));
+            if (pageItems == null) {
+                pageItems = fetchPages(query, key, page, lastPage, backwards,
+                        generation);
+            }
+            int pageStart = page * pageSize;
+            int from = Math.max(0, offset - pageStart);
+            int to = Math.min(pageItems.size(), offset + limit - pageStart);
+            if (from < to) {
+                items.addAll(pageItems.subList(from, to));
+            }
+            if (pageItems.size() < pageSize) {
+                // No more items
+                break;
+            }
+        }
+        return items.stream();
+    }
+
+    /**
+     * Fetches the given missing page together with the following pages up to
+     * the last requested page and the prefetched pages, or when scrolling
+     * backwards, together with the preceding prefetched pages. Returns the
+     * items of the given page.
+     */
+    private List<T> fetchPages(Query<T, F> query, QueryKey key, int page,
+            int lastPage, boolean backwards, int generation) {
+        int start;
+        int end;
+        if (backwards) {
+            start = Math.max(0, page - prefetchPages);
+            end = lastPage;
+        } else {
+            start = page;
+            end = lastPage + prefetchPages;
+        }
+
+        List<T> fetched = dataProvider
+                .fetch(new Query<>(start * pageSize,
+                        (end - start + 1) * pageSize, query.getSortOrders(),
+                        query.getInMemorySorting(),
+                        query.getFilter().orElse(null)))
+                .collect(Collectors.toList());
+
+        List<T> result = Collections.emptyList();
+        for (int current = start; current <= end; current++) {
+            // Pages after the end of the data are cached as empty pages
+            int from = Math.min(fetched.size(), (current - start) * pageSize);
+            List<T> pageItems = new ArrayList<>(fetched.subList(from,
+                    Math.min(fetched.size(), from + pageSize)));
+            put(pages, new PageKey(key, current), pageItems, generation);
+            if (current == page) {
+                result = pageItems;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size(Query<T, F> query) {
+        int generation = getCacheGeneration();
+        QueryKey key = new QueryKey(query);
+        Integer size = get(sizes, key);
+        if (size == null) {
+            size = dataProvider.size(query);
+            put(sizes, key, size, generation);
+        }
+        return size;
+    }
+
+    @Override
+    public Object getId(T item) {
+        return dataProvider.getId(item);
+    }
+
+    @Override
+    public void refreshAll() {
+        // Clears the cache and fires the event through the listener
+        dataProvider.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        dataProvider.refreshItem(item);
+    }
+
+    @Override
+    public void setSortOrders(List<QuerySortOrder> sortOrders) {
+        dataProvider.setSortOrders(sortOrders);
+    }
+
+    /**
+     * Clears all cached items and sizes.
+     */
+    public void clearCache() {
+        synchronized (pages) {
+            cacheGeneration++;
+            pages.clear();
+            sizes.clear();
+        }
+    }
+
+    /**
+     * Replaces the cached items having the same id as the given item.
+     */
+    private void replaceCachedItem(T item) {
+        Object id = getId(item);
+        synchronized (pages) {
+            // Pages being fetched might contain the old item
+            cacheGeneration++;
+            for (Map.Entry<PageKey, List<T>> entry : pages.entrySet()) {
+                List<T> pageItems = entry.getValue();
+                for (int i = 0; i < pageItems.size(); i++) {
+                    if (Objects.equals(id, getId(pageItems.get(i)))) {
+                        // Pages returned earlier may still be read
+                        List<T> replaced = new ArrayList<>(pageItems);
+                        replaced.set(i, item);
+                        entry.setValue(replaced);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int getCacheGeneration() {
+        synchronized (pages) {
+            return cacheGeneration;
+        }
+    }
+
+    private <K, V> V get(LruCache<K, V> cache, K key) {
+        synchronized (pages) {
+            return cache.get(key);
+        }
+    }
+
+    private <K, V> void put(LruCache<K, V> cache, K key, V value,
+            int generation) {
+        synchronized (pages) {
+            if (generation == cacheGeneration) {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of items in each cached page. Clears the cache. The
+     * default page size is 50.
+     *
+     * @param pageSize
+     *            the page size, greater than zero
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Page size must be greater than zero");
+        }
+        this.pageSize = pageSize;
+        clearCache();
+    }
+
+    /**
+     * Gets the number of items in each cached page.
+     *
+     * @return the page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the number of pages to fetch ahead of a missing page in the
+     * direction of scrolling. The default is 2.
+     *
+     * @param prefetchPages
+     *            the number of pages to prefetch, not negative
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException(
+                    "The number of prefetched pages cannot be negative");
+        }
+        this.prefetchPages = prefetchPages;
+    }
+
+    /**
+     * Gets the number of pages to fetch ahead of a missing page.
+     *
+     * @return the number of pages to prefetch
+     */
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Sets the maximum number of pages to keep in the cache. The same number
+     * of size results is kept. Clears the cache. The default is 100.
+     *
+     * @param maxCachedPages
+     *            the maximum number of cached pages, greater than zero
+     */
+    public void setMaxCachedPages(int maxCachedPages) {
+        if (maxCachedPages <= 0) {
+            throw new IllegalArgumentException(
+                    "The maximum number of cached pages must be greater than zero");
+        }
+        this.maxCachedPages = maxCachedPages;
+        synchronized (pages) {
+            pages.maxSize = maxCachedPages;
+            sizes.maxSize = maxCachedPages;
+        }
+        clearCache();
+    }
+}
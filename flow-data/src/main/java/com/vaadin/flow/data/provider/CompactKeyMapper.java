@@ -0,0 +1,440 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Objects;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * A {@link DataKeyMapper} that keeps its keys as primitive <code>int</code>s
+ * and only encodes them as strings when they are sent to the client.
+ * <p>
+ * Compared to {@link KeyMapper}, no key string or map entry is retained per
+ * mapped object. Both the identifier to key and the key to object mappings are
+ * open addressing tables with linear probing, which shrink again when objects
+ * are removed, e.g. when a {@link DataCommunicator} unregisters the items of a
+ * passivated range. The footprint therefore follows the number of currently
+ * mapped objects rather than the number of objects ever mapped.
+ * <p>
+ * Keys are generated sequentially starting from <code>1</code> and are never
+ * reused. Custom key formats are not supported.
+ *
+ * @param <V>
+ *            the type of mapped objects
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public class CompactKeyMapper<V> implements DataKeyMapper<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final String NULL_KEY = "null";
+
+    private int lastKey = 0;
+
+    private int size;
+
+    /**
+     * Object identifiers, or <code>null</code> for an empty slot.
+     */
+    private transient Object[] ids = new Object[MIN_CAPACITY];
+
+    /**
+     * Spread hash codes of the identifiers, compared before calling
+     * {@code equals()} and used when moving entries around.
+     */
+    private transient int[] idHashes = new int[MIN_CAPACITY];
+
+    private transient int[] idKeys = new int[MIN_CAPACITY];
+
+    /**
+     * Keys, or <code>0</code> for an empty slot. Generated keys are never
+     * <code>0</code>.
+     */
+    private transient int[] keys = new int[MIN_CAPACITY];
+
+    private transient Object[] objects = new Object[MIN_CAPACITY];
+
+    private ValueProvider<V, Object> identifierGetter;
+
+    /**
+     * Constructs a new mapper.
+     *
+     * @param identifierGetter
+     *            has to return a unique, non-null key for every bean, and the
+     *            returned key has to follow general {@code hashCode()} and
+     *            {@code equals()} contract, see {@link Object#hashCode()} for
+     *            details.
+     */
+    public CompactKeyMapper(ValueProvider<V, Object> identifierGetter) {
+        this.identifierGetter = identifierGetter;
+    }
+
+    /**
+     * Constructs a new mapper with trivial {@code identifierGetter}
+     */
+    public CompactKeyMapper() {
+        this(v -> v);
+    }
+
+    @Override
+    public String key(V dataObject) {
+        if (dataObject == null) {
+            return NULL_KEY;
+        }
+
+        Object id = getId(dataObject);
+        int hash = spread(id.hashCode());
+        int slot = findIdSlot(id, hash);
+        if (slot >= 0) {
+            return String.valueOf(idKeys[slot]);
+        }
+
+        // Keep the load factor at most 1/2 to keep probe sequences short
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int key = ++lastKey;
+        insertId(id, hash, key);
+        insertKey(key, dataObject);
+        size++;
+        return String.valueOf(key);
+    }
+
+    @Override
+    public boolean has(V dataObject) {
+        return findIdSlot(dataObject) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        int slot = findKeySlot(parseKey(key));
+        return slot < 0 ? null : (V) objects[slot];
+    }
+
+    @Override
+    public void remove(V dataObject) {
+        int idSlot = findIdSlot(dataObject);
+        if (idSlot < 0) {
+            return;
+        }
+        int key = idKeys[idSlot];
+        deleteIdSlot(idSlot);
+        deleteKeySlot(findKeySlot(key));
+        size--;
+
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            resize(keys.length / 2);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        size = 0;
+        ids = new Object[MIN_CAPACITY];
+        idHashes = new int[MIN_CAPACITY];
+        idKeys = new int[MIN_CAPACITY];
+        keys = new int[MIN_CAPACITY];
+        objects = new Object[MIN_CAPACITY];
+    }
+
+    /**
+     * Checks if the given key is mapped to an object.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is currently mapped,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(String key) {
+        return findKeySlot(parseKey(key)) >= 0;
+    }
+
+    /**
+     * Gets the number of objects currently mapped to a key.
+     *
+     * @return the number of mapped objects
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void refresh(V dataObject) {
+        int idSlot = findIdSlot(dataObject);
+        if (idSlot >= 0) {
+            objects[findKeySlot(idKeys[idSlot])] = dataObject;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
+        if (this.identifierGetter != identifierGetter) {
+            this.identifierGetter = identifierGetter;
+            ids = new Object[keys.length];
+            idHashes = new int[keys.length];
+            idKeys = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    Object id = getId((V) objects[i]);
+                    insertId(id, spread(id.hashCode()), keys[i]);
+                }
+            }
+        }
+    }
+
+    private Object getId(V dataObject) {
+        return Objects.requireNonNull(identifierGetter.apply(dataObject),
+                "The identifier of a mapped object cannot be null");
+    }
+
+    private int findIdSlot(V dataObject) {
+        if (dataObject == null) {
+            // Null is never mapped, its key is a constant
+            return -1;
+        }
+        Object id = identifierGetter.apply(dataObject);
+        if (id == null) {
+            return -1;
+        }
+        return findIdSlot(id, spread(id.hashCode()));
+    }
+
+    /**
+     * Parses a key string sent by the client without throwing for malformed
+     * keys.
+     *
+     * @return the key, or <code>0</code> if the string is not a valid key
+     */
+    private static int parseKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > 10) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? 0 : (int) value;
+    }
+
+    private int findIdSlot(Object id, int hash) {
+        int mask = ids.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            Object slotId = ids[slot];
+            if (slotId == null) {
+                return -1;
+            } else if (idHashes[slot] == hash
+                    && (slotId == id || slotId.equals(id))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int findKeySlot(int key) {
+        if (key <= 0) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int slot = spread(key) & mask;
+        while (true) {
+            int slotKey = keys[slot];
+            if (slotKey == key) {
+                return slot;
+            } else if (slotKey == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insertId(Object id, int hash, int key) {
+        int mask = ids.length - 1;
+        int slot = hash & mask;
+        while (ids[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        idHashes[slot] = hash;
+        idKeys[slot] = key;
+    }
+
+    private void insertKey(int key, Object dataObject) {
+        int mask = keys.length - 1;
+        int slot = spread(key) & mask;
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        objects[slot] = dataObject;
+    }
+
+    /**
+     * Empties the given identifier slot and moves back any later entries in
+     * the same probe sequence, so that lookups never need tombstones.
+     */
+    private void deleteIdSlot(int slot) {
+        int mask = ids.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (ids[next] != null) {
+            int home = idHashes[next] & mask;
+            if (isReachable(home, hole, next)) {
+                ids[hole] = ids[next];
+                idHashes[hole] = idHashes[next];
+                idKeys[hole] = idKeys[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        ids[hole] = null;
+        idHashes[hole] = 0;
+        idKeys[hole] = 0;
+    }
+
+    /**
+     * Empties the given key slot and moves back any later entries in the same
+     * probe sequence, so that lookups never need tombstones.
+     */
+    private void deleteKeySlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = spread(keys[next]) & mask;
+            if (isReachable(home, hole, next)) {
+                keys[hole] = keys[next];
+                objects[hole] = objects[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        objects[hole] = null;
+    }
+
+    /**
+     * Checks whether the hole is between the home slot of an entry and the
+     * slot where the entry currently is, i.e. whether the entry can be moved
+     * to the hole.
+     */
+    private static boolean isReachable(int home, int hole, int next) {
+        return hole <= next ? home <= hole || home > next
+                : home <= hole && home > next;
+    }
+
+    private void resize(int capacity) {
+        Object[] oldIds = ids;
+        int[] oldIdHashes = idHashes;
+        int[] oldIdKeys = idKeys;
+        int[] oldKeys = keys;
+        Object[] oldObjects = objects;
+        ids = new Object[capacity];
+        idHashes = new int[capacity];
+        idKeys = new int[capacity];
+        keys = new int[capacity];
+        objects = new Object[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != null) {
+                insertId(oldIds[i], oldIdHashes[i], oldIdKeys[i]);
+            }
+            if (oldKeys[i] != 0) {
+                insertKey(oldKeys[i], oldObjects[i]);
+            }
+        }
+    }
+
+    /**
+     * Spreads hash codes and sequential keys over the whole table, so that
+     * neither patterns in identifier hash codes nor the runs of live keys
+     * form long probe sequences.
+     */
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * Override default serialization logic to write the mapped entries
+     * instead of the transient lookup tables, since the hash codes of the
+     * identifiers may differ after deserialization.
+     *
+     * @param stream
+     *            the stream to write to
+     * @throws IOException
+     *             if an IO error occurred
+     */
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != null) {
+                stream.writeObject(ids[i]);
+                stream.writeInt(idKeys[i]);
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                stream.writeInt(keys[i]);
+                stream.writeObject(objects[i]);
+            }
+        }
+    }
+
+    /**
+     * Override default deserialization logic to rebuild the transient lookup
+     * tables.
+     *
+     * @param stream
+     *            the object to read
+     * @throws IOException
+     *             if an IO error occurred
+     * @throws ClassNotFoundException
+     *             if the class of the stream object could not be found
+     */
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        int capacity = MIN_CAPACITY;
+        while (size * 2 > capacity) {
+            capacity *= 2;
+        }
+        ids = new Object[capacity];
+        idHashes = new int[capacity];
+        idKeys = new int[capacity];
+        keys = new int[capacity];
+        objects = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            Object id = stream.readObject();
+            insertId(id, spread(id.hashCode()), stream.readInt());
+        }
+        for (int i = 0; i < size; i++) {
+            int key = stream.readInt();
+            insertKey(key, stream.readObject());
+        }
+    }
+}
@@ -76,8 +76,8 @@ public class ComponentDataGenerator<T>
         if (oldRenderedComponent != null) {
             nodeId = oldRenderedComponent.getElement().getNode().getId();
         } else {
-            Component renderedComponent = createComponent(item);
-            registerRenderedComponent(itemKey, renderedComponent);
+            Component renderedComponent = createOrRecycleComponent(itemKey,
+                    item);
 
             nodeId = renderedComponent.getElement().getNode().getId();
         }
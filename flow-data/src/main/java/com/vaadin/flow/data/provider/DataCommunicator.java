@@ -21,16 +21,24 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.function.SerializableComparator;
@@ -39,6 +47,7 @@ import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.shared.Registration;
 
 import elemental.json.Json;
@@ -96,11 +105,103 @@ public class DataCommunicator<T> implements Serializable {
     private final ArrayList<QuerySortOrder> backEndSorting = new ArrayList<>();
 
     private Registration dataProviderUpdateRegistration;
+    private Registration footprintRegistration;
     private HashSet<T> updatedData = new HashSet<>();
 
     private SerializableConsumer<ExecutionContext> flushRequest;
     private SerializableConsumer<ExecutionContext> flushUpdatedDataRequest;
 
+    // Incremented whenever the data of a previous fetch may be outdated
+    private int dataGeneration;
+
+    // Items and size fetched ahead for the next or the ongoing flush
+    private transient FetchedData<T> fetchedData;
+
+    private int sentItemCacheSize = 0;
+
+    // Latest data sent for each item key, null when not retained
+    private SentItemCache sentItems;
+
+    /**
+     * A map evicting the least recently used entry when the size limit is
+     * exceeded.
+     */
+    private static class SentItemCache
+            extends LinkedHashMap<String, JsonObject> {
+        private final int maxSize;
+
+        private SentItemCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<String, JsonObject> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    /**
+     * Items and size fetched from an {@link AsyncDataProvider} or a
+     * {@link FetchWithSizeDataProvider} for one flush.
+     */
+    private static class FetchedData<T> implements Serializable {
+        private final int generation;
+        private final Range range;
+        private final boolean sizeFetched;
+
+        private transient List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        private volatile List<T> items;
+        private volatile Integer size;
+        private boolean done;
+
+        private FetchedData(int generation, Range range, boolean sizeFetched) {
+            this.generation = generation;
+            this.range = range;
+            this.sizeFetched = sizeFetched;
+        }
+
+        private FetchedData(Range range, FetchResult<T> result) {
+            this(0, range, true);
+            items = result.getItems();
+            size = Integer.valueOf(result.getSize());
+            done = true;
+        }
+
+        private boolean covers(int generation, Range range,
+                boolean sizeNeeded) {
+            return this.generation == generation
+                    && range.isSubsetOf(this.range)
+                    && (sizeFetched || !sizeNeeded);
+        }
+
+        private Integer getSize() {
+            if (size == null && items.size() < range.length()) {
+                // The query reached the end of the data
+                return range.getStart() + items.size();
+            }
+            return size;
+        }
+
+        private List<T> getItems(int offset, int limit) {
+            if (offset < range.getStart()
+                    || offset + limit > range.getEnd()) {
+                return null;
+            }
+            int from = Math.min(items.size(), offset - range.getStart());
+            int to = Math.min(items.size(), from + limit);
+            return items.subList(from, to);
+        }
+
+        private void cancel() {
+            if (futures != null) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -146,6 +247,11 @@ public class DataCommunicator<T> implements Serializable {
 
         stateNode.addAttachListener(this::handleAttach);
         stateNode.addDetachListener(this::handleDetach);
+        stateNode.addAttachListener(this::registerFootprintContributor);
+        stateNode.addDetachListener(this::unregisterFootprintContributor);
+        if (stateNode.isAttached()) {
+            registerFootprintContributor();
+        }
 
         requestFlush();
     }
@@ -171,8 +277,10 @@ public class DataCommunicator<T> implements Serializable {
      */
     public void reset() {
         resendEntireRange = true;
+        dataGeneration++;
         dataGenerator.destroyAllData();
         updatedData.clear();
+        clearSentItems();
         requestFlush();
     }
 
@@ -191,6 +299,62 @@ public class DataCommunicator<T> implements Serializable {
         requestFlushUpdatedData();
     }
 
+    /**
+     * Sets the number of items for which the latest data sent to the client is
+     * retained. When an item with retained data is refreshed, only the
+     * properties that have changed compared to the retained data are sent for
+     * it, together with its <code>key</code>. Removed properties are sent as
+     * <code>null</code>, and the item is not sent at all if nothing has
+     * changed. The data updater of this data communicator must then merge the
+     * sent properties into the item data on the client side instead of
+     * replacing it.
+     * <p>
+     * All data generators are still run for refreshed items, but the amount
+     * of data sent and processed by the client is reduced when only a few of
+     * many properties change, for instance one column of a wide grid.
+     * <p>
+     * By default, the size is <code>0</code> and the complete data is sent for
+     * every refreshed item.
+     *
+     * @param sentItemCacheSize
+     *            the maximum number of items to retain sent data for, not
+     *            negative
+     */
+    public void setSentItemCacheSize(int sentItemCacheSize) {
+        if (sentItemCacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        this.sentItemCacheSize = sentItemCacheSize;
+        sentItems = null;
+    }
+
+    /**
+     * Gets the number of items for which the latest data sent to the client is
+     * retained.
+     *
+     * @return the maximum number of items to retain sent data for
+     * @see #setSentItemCacheSize(int)
+     */
+    public int getSentItemCacheSize() {
+        return sentItemCacheSize;
+    }
+
+    /**
+     * Discards the retained data sent for the given item, so that the complete
+     * data is sent the next time the item is refreshed. Should be called by
+     * subclasses that change the item data on the client side by other means
+     * than this data communicator.
+     *
+     * @param item
+     *            the item to discard the sent data of, not <code>null</code>
+     * @see #setSentItemCacheSize(int)
+     */
+    protected void discardSentItemData(T item) {
+        if (sentItems != null && getKeyMapper().has(item)) {
+            sentItems.remove(getKeyMapper().key(item));
+        }
+    }
+
     /**
      * Confirm update with the given {@code updateId}.
      *
@@ -336,6 +500,56 @@ public class DataCommunicator<T> implements Serializable {
         return getDataProvider().size(new Query(getFilter()));
     }
 
+    /**
+     * Returns whether the items and sizes are fetched asynchronously without
+     * holding the session lock. This is the case when the data provider is an
+     * {@link AsyncDataProvider}.
+     *
+     * @return <code>true</code> if data is fetched asynchronously,
+     *         <code>false</code> if data is fetched while flushing changes to
+     *         the client
+     */
+    protected boolean isAsyncFetch() {
+        return getDataProvider() instanceof AsyncDataProvider;
+    }
+
+    /**
+     * Returns whether items are fetched together with the size of the data
+     * provider in one query. This is the case when the data provider is a
+     * {@link FetchWithSizeDataProvider}.
+     *
+     * @return <code>true</code> if
+     *         {@link #fetchWithSizeFromProvider(int, int)} is used when
+     *         flushing, <code>false</code> if
+     *         {@link #fetchFromProvider(int, int)} and
+     *         {@link #getDataProviderSize()} are used
+     */
+    protected boolean isFetchWithSize() {
+        return getDataProvider() instanceof FetchWithSizeDataProvider;
+    }
+
+    /**
+     * Fetches a list of items together with the size of the DataProvider in
+     * one query. Can be overridden by a subclass that uses a specific type of
+     * DataProvider and/or query.
+     *
+     * @param offset
+     *            the starting index of the range
+     * @param limit
+     *            the max number of results
+     * @return the items in the given range and the size of the data provider
+     *         with the current filter
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected FetchResult<T> fetchWithSizeFromProvider(int offset, int limit) {
+        QueryTrace query = new QueryTrace(offset, limit, backEndSorting,
+                inMemorySorting, filter);
+        FetchResult<T> result = ((FetchWithSizeDataProvider) getDataProvider())
+                .fetchWithSize(query);
+        collectItems(query, result.getItems().stream());
+        return result;
+    }
+
     /**
      * Get the object used for filtering in this data communicator.
      *
@@ -405,12 +619,41 @@ public class DataCommunicator<T> implements Serializable {
 
     private void handleDetach() {
         dataGenerator.destroyAllData();
+        clearSentItems();
+        cancelAsyncFetch();
         if (dataProviderUpdateRegistration != null) {
             dataProviderUpdateRegistration.remove();
             dataProviderUpdateRegistration = null;
         }
     }
 
+    private void registerFootprintContributor() {
+        stateNode.runWhenAttached(ui -> footprintRegistration = ui
+                .getInternals()
+                .addFootprintContributor(this::contributeFootprint));
+    }
+
+    private void unregisterFootprintContributor() {
+        if (footprintRegistration != null) {
+            footprintRegistration.remove();
+            footprintRegistration = null;
+        }
+    }
+
+    private void contributeFootprint(ObjIntConsumer<String> counter) {
+        counter.accept("dataCommunicator.activeKeys", activeKeyOrder.size());
+        if (sentItems != null) {
+            counter.accept("dataCommunicator.sentItems", sentItems.size());
+        }
+        if (keyMapper instanceof KeyMapper) {
+            counter.accept("dataCommunicator.mappedKeys",
+                    ((KeyMapper<?>) keyMapper).size());
+        } else if (keyMapper instanceof CompactKeyMapper) {
+            counter.accept("dataCommunicator.mappedKeys",
+                    ((CompactKeyMapper<?>) keyMapper).size());
+        }
+    }
+
     private void requestFlush() {
         if (flushRequest == null) {
             flushRequest = context -> {
@@ -438,6 +681,18 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private void flush() {
+        if (isAsyncFetch() && !isAsyncFetchDone()) {
+            // Flushed again when the data provider has responded
+            return;
+        }
+        try {
+            doFlush();
+        } finally {
+            fetchedData = null;
+        }
+    }
+
+    private void doFlush() {
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
         Range effectiveRequested;
@@ -446,7 +701,7 @@ public class DataCommunicator<T> implements Serializable {
 
         // Phase 1: Find all items that the client should have
         if (resendEntireRange) {
-            assumedSize = getDataProviderSize();
+            assumedSize = getSizeForFlush();
         }
         effectiveRequested = requestedRange
                 .restrictTo(Range.withLength(0, assumedSize));
@@ -460,7 +715,7 @@ public class DataCommunicator<T> implements Serializable {
         // If the returned stream from the DataProvider is smaller than it
         // should, a new query for the actual size needs to be done
         if (activation.isSizeRecheckNeeded()) {
-            assumedSize = getDataProviderSize();
+            assumedSize = getSizeForFlush();
             effectiveRequested = requestedRange
                     .restrictTo(Range.withLength(0, assumedSize));
         }
@@ -483,13 +738,208 @@ public class DataCommunicator<T> implements Serializable {
         unregisterPassivatedKeys();
     }
 
+    /**
+     * Checks whether the items and size needed for flushing have been fetched
+     * from the asynchronous data provider, and starts fetching them if not.
+     */
+    private boolean isAsyncFetchDone() {
+        final Range previousActive = Range.withLength(activeStart,
+                activeKeyOrder.size());
+        boolean sizeNeeded = resendEntireRange;
+        Range range;
+        if (sizeNeeded) {
+            range = requestedRange;
+        } else {
+            range = requestedRange
+                    .restrictTo(Range.withLength(0, assumedSize));
+            if (previousActive.intersects(range)) {
+                // Only the items missing from the client are fetched
+                Range[] missing = range.partitionWith(previousActive);
+                if (missing[0].isEmpty() && missing[2].isEmpty()) {
+                    cancelAsyncFetch();
+                    return true;
+                }
+                range = Range.between(
+                        missing[0].isEmpty() ? missing[2].getStart()
+                                : missing[0].getStart(),
+                        missing[2].isEmpty() ? missing[0].getEnd()
+                                : missing[2].getEnd());
+            } else if (range.isEmpty() && previousActive.isEmpty()) {
+                cancelAsyncFetch();
+                return true;
+            }
+        }
+
+        if (fetchedData != null) {
+            if (fetchedData.covers(dataGeneration, range, sizeNeeded)) {
+                return fetchedData.done;
+            }
+            // Superseded by a different range, filter or sorting
+            cancelAsyncFetch();
+        }
+        startAsyncFetch(range, sizeNeeded);
+        return false;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void startAsyncFetch(Range range, boolean sizeNeeded) {
+        AsyncDataProvider provider = (AsyncDataProvider) getDataProvider();
+        FetchedData<T> fetch = new FetchedData<>(dataGeneration, range,
+                sizeNeeded);
+        fetchedData = fetch;
+
+        CompletableFuture<List<T>> items;
+        if (range.isEmpty()) {
+            items = CompletableFuture.completedFuture(Collections.emptyList());
+        } else {
+            // Copy the sort orders since the query is used in another thread
+            QueryTrace query = new QueryTrace(range.getStart(), range.length(),
+                    new ArrayList<>(backEndSorting), inMemorySorting, filter);
+            CompletableFuture<Stream<T>> stream = provider.fetchAsync(query);
+            fetch.futures.add(stream);
+            items = stream.thenApply(result -> collectItems(query, result));
+        }
+        CompletableFuture<Integer> size;
+        if (sizeNeeded) {
+            size = provider.sizeAsync(new Query(getFilter()));
+            fetch.futures.add(size);
+        } else {
+            size = CompletableFuture.completedFuture(null);
+        }
+
+        UI ui = ((StateTree) stateNode.getOwner()).getUI();
+        items.thenAcceptBoth(size, (fetchedItems, fetchedSize) -> {
+            fetch.items = fetchedItems;
+            fetch.size = fetchedSize;
+        }).whenComplete((ignore, error) -> {
+            if (error instanceof CancellationException || (error != null
+                    && error.getCause() instanceof CancellationException)) {
+                return;
+            }
+            try {
+                ui.access(() -> applyAsyncFetch(fetch, error));
+            } catch (UIDetachedException e) {
+                // Nothing to show the data in
+            }
+        });
+    }
+
+    private List<T> collectItems(QueryTrace<T, ?> query, Stream<T> stream) {
+        SizeVerifier<T> verifier = new SizeVerifier<>(query.getLimit());
+        List<T> items = stream.peek(verifier).collect(Collectors.toList());
+        if (!query.isLimitCalled()) {
+            throw new IllegalStateException(
+                    getInvalidContractMessage("getLimit"));
+        }
+        if (!query.isOffsetCalled()) {
+            throw new IllegalStateException(
+                    getInvalidContractMessage("getOffset"));
+        }
+        return items;
+    }
+
+    private void applyAsyncFetch(FetchedData<T> fetch, Throwable error) {
+        if (fetchedData != fetch) {
+            // Superseded while completing
+            return;
+        }
+        if (error != null) {
+            fetchedData = null;
+            Throwable cause = error instanceof CompletionException
+                    && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(
+                    "The data provider failed to fetch data", cause);
+        }
+        fetch.done = true;
+        requestFlush();
+    }
+
+    private void cancelAsyncFetch() {
+        if (fetchedData != null) {
+            fetchedData.cancel();
+            fetchedData = null;
+        }
+    }
+
+    private int getSizeForFlush() {
+        if (fetchedData != null && fetchedData.done
+                && fetchedData.getSize() != null) {
+            return fetchedData.getSize().intValue();
+        }
+        if (isFetchWithSize()) {
+            // Fetch the items to send together with the size
+            fetchedData = new FetchedData<>(requestedRange,
+                    fetchWithSizeFromProvider(requestedRange.getStart(),
+                            requestedRange.length()));
+            return fetchedData.getSize().intValue();
+        }
+        return getDataProviderSize();
+    }
+
+    private Stream<T> fetchForFlush(int offset, int limit) {
+        if (fetchedData != null && fetchedData.done) {
+            List<T> items = fetchedData.getItems(offset, limit);
+            if (items != null) {
+                return items.stream();
+            }
+        }
+        if (isFetchWithSize()) {
+            // Keep the size in case the size needs to be checked again
+            fetchedData = new FetchedData<>(Range.withLength(offset, limit),
+                    fetchWithSizeFromProvider(offset, limit));
+            return fetchedData.getItems(offset, limit).stream();
+        }
+        return fetchFromProvider(offset, limit);
+    }
+
     private void flushUpdatedData() {
         if (updatedData.isEmpty()) {
             return;
         }
-        dataUpdater.accept(updatedData.stream().map(this::generateJson)
-                .collect(JsonUtils.asArray()));
+        JsonArray updatedJson = updatedData.stream()
+                .map(this::generateUpdatedJson).filter(Objects::nonNull)
+                .collect(JsonUtils.asArray());
         updatedData.clear();
+        if (updatedJson.length() > 0) {
+            dataUpdater.accept(updatedJson);
+        }
+    }
+
+    private JsonObject generateUpdatedJson(T item) {
+        JsonObject previous = sentItems == null ? null
+                : sentItems.get(getKeyMapper().key(item));
+        JsonObject json = generateJson(item);
+        if (previous == null) {
+            return json;
+        }
+
+        JsonObject changes = Json.createObject();
+        for (String property : json.keys()) {
+            if (!previous.hasKey(property) || !JsonUtils
+                    .jsonEquals(previous.get(property), json.get(property))) {
+                changes.put(property, json.get(property));
+            }
+        }
+        for (String property : previous.keys()) {
+            if (!json.hasKey(property)) {
+                changes.put(property, Json.createNull());
+            }
+        }
+        if (changes.keys().length == 0) {
+            // Nothing to send for an unchanged item
+            return null;
+        }
+        changes.put("key", json.getString("key"));
+        return changes;
+    }
+
+    private void clearSentItems() {
+        if (sentItems != null) {
+            sentItems.clear();
+        }
     }
 
     private void unregisterPassivatedKeys() {
@@ -508,6 +958,9 @@ public class DataCommunicator<T> implements Serializable {
         if (passivated != null) {
             passivated.forEach(key -> {
                 T item = keyMapper.get(key);
+                if (sentItems != null) {
+                    sentItems.remove(key);
+                }
                 if (item != null) {
                     dataGenerator.destroyData(item);
                     keyMapper.remove(item);
@@ -609,7 +1062,7 @@ public class DataCommunicator<T> implements Serializable {
     private List<JsonValue> getJsonItems(Range range) {
         return range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
-                .map(keyMapper::get).map(this::generateJson)
+                .map(keyMapper::get).<JsonValue> map(this::generateJson)
                 .collect(Collectors.toList());
     }
 
@@ -635,7 +1088,7 @@ public class DataCommunicator<T> implements Serializable {
 
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        fetchForFlush(range.getStart(), range.length()).forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
@@ -650,10 +1103,17 @@ public class DataCommunicator<T> implements Serializable {
         return new Activation(activeKeys, needsSizeRecheck);
     }
 
-    private JsonValue generateJson(T item) {
+    private JsonObject generateJson(T item) {
         JsonObject json = Json.createObject();
-        json.put("key", getKeyMapper().key(item));
+        String key = getKeyMapper().key(item);
+        json.put("key", key);
         dataGenerator.generateData(item, json);
+        if (sentItemCacheSize > 0) {
+            if (sentItems == null) {
+                sentItems = new SentItemCache(sentItemCacheSize);
+            }
+            sentItems.put(key, json);
+        }
         return json;
     }
 
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+/**
+ * A data provider that can fetch items and count the size of the data in the
+ * same query, for example using a window function in SQL.
+ * <p>
+ * {@link DataCommunicator} and the
+ * {@link com.vaadin.flow.data.provider.hierarchy.HierarchyMapper
+ * HierarchyMapper} of hierarchical components use
+ * {@link #fetchWithSize(Query)} instead of separate {@link #fetch(Query)} and
+ * {@link #size(Query)} calls when possible, so that showing a new range of
+ * items only needs one query to the back end. The separate methods are still
+ * used in other cases.
+ * <p>
+ * For a {@link com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider
+ * HierarchicalDataProvider}, the query is a
+ * {@link com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery
+ * HierarchicalQuery}, and the result contains the children of its parent and
+ * their count.
+ *
+ * @param <T>
+ *            data type
+ * @param <F>
+ *            filter type
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public interface FetchWithSizeDataProvider<T, F> extends DataProvider<T, F> {
+
+    /**
+     * Fetches data based on the given query, together with the size of the
+     * data for the filter of the query. The items must obey the same rules as
+     * the stream returned by {@link #fetch(Query)}, and the size must be the
+     * same as returned by {@link #size(Query)}.
+     *
+     * @param query
+     *            given query to request data with
+     * @return the requested items and the size of the data, not
+     *         <code>null</code>
+     */
+    FetchResult<T> fetchWithSize(Query<T, F> query);
+}
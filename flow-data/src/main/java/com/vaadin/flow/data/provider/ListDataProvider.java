@@ -15,10 +15,14 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.function.SerializableComparator;
@@ -26,6 +30,13 @@ import com.vaadin.flow.function.SerializablePredicate;
 
 /**
  * {@link DataProvider} wrapper for {@link Collection}s.
+ * <p>
+ * The filtered and sorted items of the latest query are cached, so that
+ * fetching further pages with the same filter and sorting only costs the size
+ * of the page. The cache is invalidated by {@link #refreshAll()},
+ * {@link #refreshItem(Object)} and when the size of the backing collection
+ * changes. Call {@link #refreshAll()} after changing the backing collection or
+ * any item in a way that affects filtering or sorting.
  *
  * @param <T>
  *            data type
@@ -40,6 +51,55 @@ public class ListDataProvider<T>
 
     private final Collection<T> backend;
 
+    private transient ForkJoinPool parallelPool;
+
+    private int parallelThreshold;
+
+    /**
+     * The items matching the latest query. Replaced instead of modified so
+     * that a provider shared between sessions can read it without locking.
+     */
+    private transient volatile FilteredItems<T> filteredItems;
+
+    /**
+     * Incremented whenever the filter, the sorting or the items of this
+     * provider may have changed, so that items filtered and sorted by a fetch
+     * running concurrently are never used afterwards.
+     */
+    private transient volatile int cacheGeneration;
+
+    private static final class FilteredItems<T> implements Serializable {
+        private final int generation;
+        private final SerializablePredicate<T> queryFilter;
+        private final Comparator<T> querySorting;
+        private final int backendSize;
+        private final List<T> items;
+
+        private FilteredItems(int generation,
+                SerializablePredicate<T> queryFilter,
+                Comparator<T> querySorting, int backendSize,
+                List<T> items) {
+            this.generation = generation;
+            this.queryFilter = queryFilter;
+            this.querySorting = querySorting;
+            this.backendSize = backendSize;
+            this.items = items;
+        }
+
+        private boolean hasFilter(int generation,
+                SerializablePredicate<T> filter, int size) {
+            return this.generation == generation && backendSize == size
+                    && Objects.equals(queryFilter, filter);
+        }
+
+        private boolean hasFilterAndSorting(int generation,
+                SerializablePredicate<T> filter, Comparator<T> sorting,
+                int size) {
+            return hasFilter(generation, filter, size)
+                    && Objects.equals(querySorting, sorting);
+        }
+    }
+
     /**
      * Constructs a new ListDataProvider.
      * <p>
@@ -67,28 +127,112 @@ public class ListDataProvider<T>
 
     @Override
     public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
-        Stream<T> stream = getFilteredStream(query);
-
+        // Read before the filter and sorting of this provider
+        int generation = cacheGeneration;
         Optional<Comparator<T>> comparing = Stream
                 .of(query.getInMemorySorting(), sortOrder)
                 .filter(Objects::nonNull)
                 .reduce((c1, c2) -> c1.thenComparing(c2));
 
-        if (comparing.isPresent()) {
-            stream = stream.sorted(comparing.get());
+        List<T> items;
+        if (isUnfiltered(query) && !comparing.isPresent()
+                && backend instanceof List) {
+            items = (List<T>) backend;
+        } else {
+            items = getFilteredItems(query, comparing.orElse(null),
+                    generation);
         }
 
-        return stream.skip(query.getOffset()).limit(query.getLimit());
+        int from = Math.min(query.getOffset(), items.size());
+        int to = (int) Math.min((long) from + query.getLimit(), items.size());
+        return items.subList(from, to).stream();
     }
 
     @Override
     public int size(Query<T, SerializablePredicate<T>> query) {
-        return (int) getFilteredStream(query).count();
+        if (isUnfiltered(query)) {
+            return backend.size();
+        }
+        FilteredItems<T> cached = filteredItems;
+        if (cached != null && cached.hasFilter(cacheGeneration,
+                query.getFilter().orElse(null), backend.size())) {
+            return cached.items.size();
+        }
+        ForkJoinPool pool = getParallelPool(backend.size());
+        if (pool != null) {
+            return pool
+                    .submit(() -> (int) getFilteredStream(query, true).count())
+                    .join().intValue();
+        }
+        return (int) getFilteredStream(query, false).count();
+    }
+
+    @Override
+    public void refreshAll() {
+        cacheGeneration++;
+        filteredItems = null;
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        cacheGeneration++;
+        filteredItems = null;
+        super.refreshItem(item);
+    }
+
+    private boolean isUnfiltered(Query<T, SerializablePredicate<T>> query) {
+        return filter == null && !query.getFilter().isPresent();
+    }
+
+    private List<T> getFilteredItems(Query<T, SerializablePredicate<T>> query,
+            Comparator<T> comparator, int generation) {
+        SerializablePredicate<T> queryFilter = query.getFilter().orElse(null);
+        Comparator<T> querySorting = query.getInMemorySorting();
+        int backendSize = backend.size();
+
+        FilteredItems<T> cached = filteredItems;
+        if (cached != null && cached.hasFilterAndSorting(generation,
+                queryFilter, querySorting, backendSize)) {
+            return cached.items;
+        }
+
+        List<T> items;
+        ForkJoinPool pool = getParallelPool(backendSize);
+        if (pool != null) {
+            // Parallel streams run in the pool of the worker starting them
+            items = pool.submit(() -> {
+                Stream<T> stream = getFilteredStream(query, true);
+                if (comparator != null) {
+                    stream = stream.sorted(comparator);
+                }
+                return stream.collect(Collectors.toList());
+            }).join();
+        } else {
+            items = getFilteredStream(query, false)
+                    .collect(Collectors.toList());
+            if (comparator != null) {
+                items.sort(comparator);
+            }
+        }
+        if (generation == cacheGeneration) {
+            filteredItems = new FilteredItems<>(generation, queryFilter,
+                    querySorting, backendSize, items);
+        }
+        return items;
+    }
+
+    private ForkJoinPool getParallelPool(int size) {
+        if (parallelPool != null && size >= parallelThreshold) {
+            return parallelPool;
+        }
+        return null;
     }
 
     private Stream<T> getFilteredStream(
-            Query<T, SerializablePredicate<T>> query) {
-        Stream<T> stream = backend.stream();
+            Query<T, SerializablePredicate<T>> query, boolean parallel) {
+        Stream<T> stream = parallel ? backend.parallelStream()
+                : backend.stream();
 
         // Apply our own filters first so that query filters never see the items
         // that would already have been filtered out
@@ -101,6 +245,59 @@ public class ListDataProvider<T>
         return stream;
     }
 
+    /**
+     * Enables filtering and sorting the items in parallel in the given pool
+     * whenever the backing collection contains at least {@code threshold}
+     * items. Fetched items are still returned as a sequential stream in the
+     * correct order.
+     * <p>
+     * Filters and comparators are then run in the threads of the pool, so
+     * they must be thread safe and may not rely on thread local state such as
+     * {@link com.vaadin.flow.component.UI#getCurrent()}.
+     * <p>
+     * The pool is not serialized with this data provider. A deserialized data
+     * provider filters and sorts sequentially until parallel execution is
+     * enabled again.
+     *
+     * @param pool
+     *            the pool to run parallel filtering and sorting in, e.g.
+     *            {@link ForkJoinPool#commonPool()}, or <code>null</code> to
+     *            always filter and sort in the calling thread
+     * @param threshold
+     *            the minimum number of items in the backing collection to use
+     *            parallel execution for, not negative
+     */
+    public void setParallelExecution(ForkJoinPool pool, int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException(
+                    "Threshold cannot be negative: " + threshold);
+        }
+        parallelPool = pool;
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Gets the pool used for parallel filtering and sorting.
+     *
+     * @return the pool for parallel execution, or <code>null</code> if
+     *         parallel execution is not enabled
+     * @see #setParallelExecution(ForkJoinPool, int)
+     */
+    public ForkJoinPool getParallelExecutionPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Gets the minimum number of items in the backing collection to filter and
+     * sort in parallel.
+     *
+     * @return the parallel execution threshold
+     * @see #setParallelExecution(ForkJoinPool, int)
+     */
+    public int getParallelExecutionThreshold() {
+        return parallelThreshold;
+    }
+
     @Override
     public SerializableComparator<T> getSortComparator() {
         return sortOrder;
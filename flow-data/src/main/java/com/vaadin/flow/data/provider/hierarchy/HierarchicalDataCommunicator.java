@@ -24,10 +24,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.data.provider.AsyncDataProvider;
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
 import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataGenerator;
 import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.FetchResult;
 import com.vaadin.flow.data.provider.KeyMapper;
 import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.data.provider.hierarchy.HierarchicalArrayUpdater.HierarchicalUpdate;
@@ -153,6 +157,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().invalidateSubtreeSizes();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -167,6 +172,12 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.fetchRootItems(Range.withLength(offset, limit));
     }
 
+    @Override
+    protected FetchResult<T> fetchWithSizeFromProvider(int offset,
+            int limit) {
+        return mapper.fetchRootItemsWithSize(Range.withLength(offset, limit));
+    }
+
     public void setParentRequestedRange(int start, int length, T parentItem) {
         String parentKey = uniqueKeyProviderSupplier.get().apply(parentItem);
 
@@ -191,6 +202,10 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
 
     /**
      * Set the current hierarchical data provider for this communicator.
+     * <p>
+     * An {@link AsyncDataProvider} is queried synchronously, waiting for each
+     * query to complete while the session is locked, see
+     * {@link AsyncDataProvider}.
      *
      * @param dataProvider
      *            the data provider to set, not <code>null</code>
@@ -205,6 +220,15 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
      */
     public <F> SerializableConsumer<F> setDataProvider(
             HierarchicalDataProvider<T, F> dataProvider, F initialFilter) {
+        if (dataProvider instanceof AsyncDataProvider) {
+            LoggerFactory.getLogger(HierarchicalDataCommunicator.class).warn(
+                    "The asynchronous data provider {} is used synchronously "
+                            + "by a hierarchical component, which waits for "
+                            + "each query while holding the session lock. "
+                            + "This deadlocks if a query needs the session "
+                            + "lock to complete, for instance through UI.access.",
+                    dataProvider.getClass().getName());
+        }
         SerializableConsumer<F> consumer = super.setDataProvider(dataProvider,
                 initialFilter);
 
@@ -325,6 +349,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         items.forEach(item -> {
             if (mapper.collapse(item)) {
                 collapsedItems.add(item);
+                discardSentItemData(item);
                 HierarchicalCommunicationController<T> controller = dataControllers
                         .remove(getKeyMapper().key(item));
                 if (controller != null) {
@@ -391,6 +416,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         items.forEach(item -> {
             if (mapper.expand(item)) {
                 expandedItems.add(item);
+                discardSentItemData(item);
             }
         });
         if (syncClient && !expandedItems.isEmpty()) {
@@ -477,6 +503,12 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.getRootSize();
     }
 
+    @Override
+    protected boolean isAsyncFetch() {
+        // The hierarchy mapper queries the data provider synchronously
+        return false;
+    }
+
     @Override
     public void setBackEndSorting(List<QuerySortOrder> sortOrder) {
         if (mapper != null) {
@@ -23,13 +23,14 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.vaadin.flow.data.provider.FetchResult;
+import com.vaadin.flow.data.provider.FetchWithSizeDataProvider;
 import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.internal.Range;
 
@@ -53,10 +54,16 @@ import com.vaadin.flow.internal.Range;
 public class HierarchyMapper<T, F> implements Serializable {
 
     // childMap is only used for finding parents of items and clean up on
-    // removing children of expanded nodes.
-    private Map<T, Set<T>> childMap = new HashMap<>();
+    // removing children of expanded nodes. It maps parent ids to child ids,
+    // root items are registered under the null key.
+    private Map<Object, Set<Object>> childMap = new HashMap<>();
     private Map<Object, T> parentIdMap = new HashMap<>();
 
+    // Number of visible descendants of expanded items by item id, the null key
+    // holds the size of the whole tree. Entries are dropped for an item and
+    // all its ancestors whenever the hierarchy below them changes.
+    private Map<Object, Integer> subtreeSizes = new HashMap<>();
+
     private final HierarchicalDataProvider<T, F> provider;
     private F filter;
     private List<QuerySortOrder> backEndSorting;
@@ -80,7 +87,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getSubtreeSize(null);
     }
 
     /**
@@ -102,8 +109,13 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        Object id = getDataProvider().getId(item);
+        if (!parentIdMap.containsKey(id)) {
+            // Registers the parents of all visible items
+            scanIndex(id);
+        }
+        T parent = getParentOfItem(item);
+        return parent == null ? -1 : getIndex(parent);
     }
 
     /**
@@ -115,8 +127,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        return getIndexOf(item).orElse(-1);
     }
 
     /**
@@ -157,8 +168,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
-            return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+            return Range.withLength(position + 1, getSubtreeSize(item));
         }
 
         return Range.withLength(0, 0);
@@ -176,7 +186,9 @@ public class HierarchyMapper<T, F> implements Serializable {
     private boolean doExpand(T item) {
         boolean expanded = false;
         if (!isExpanded(item) && hasChildren(item)) {
-            expandedItemIds.add(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.add(id);
+            invalidateSubtreeSize(id);
             expanded = true;
         }
         return expanded;
@@ -193,7 +205,9 @@ public class HierarchyMapper<T, F> implements Serializable {
             return false;
         }
         if (isExpanded(item)) {
-            expandedItemIds.remove(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.remove(id);
+            invalidateSubtreeSize(id);
             return true;
         }
         return false;
@@ -214,9 +228,11 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(item)) {
             if (position != null) {
                 removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                        getSubtreeSize(item));
             }
-            expandedItemIds.remove(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.remove(id);
+            invalidateSubtreeSize(id);
         }
         return removedRows;
     }
@@ -280,6 +296,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        subtreeSizes.clear();
     }
 
     /**
@@ -344,6 +361,32 @@ public class HierarchyMapper<T, F> implements Serializable {
         return getDirectChildren(null, range);
     }
 
+    /**
+     * Fetches the root items in the given range together with the number of
+     * root items, in one query to a {@link FetchWithSizeDataProvider}.
+     *
+     * @param range
+     *            the requested item range
+     * @return the root items in the range and the size of the root level
+     * @throws IllegalStateException
+     *             if the data provider is not a
+     *             {@link FetchWithSizeDataProvider}
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public FetchResult<T> fetchRootItemsWithSize(Range range) {
+        if (!(getDataProvider() instanceof FetchWithSizeDataProvider)) {
+            throw new IllegalStateException(
+                    "The data provider does not implement "
+                            + FetchWithSizeDataProvider.class.getName());
+        }
+        FetchResult<T> result = ((FetchWithSizeDataProvider) getDataProvider())
+                .fetchWithSize(new HierarchicalQuery(range.getStart(),
+                        range.length(), getBackEndSorting(),
+                        getInMemorySorting(), getFilter(), null));
+        registerFetchedChildren(null, result.getItems());
+        return result;
+    }
+
     public Stream<T> fetchChildItems(T parent, Range range) {
         return getChildrenStream(parent, range, false);
     }
@@ -376,18 +419,6 @@ public class HierarchyMapper<T, F> implements Serializable {
                 getInMemorySorting(), getFilter(), parent));
     }
 
-    /**
-     * Generic method for finding full range of direct children of a given
-     * parent.
-     *
-     * @param parent
-     *            the parent
-     * @return the all children of the given parent
-     */
-    private Stream<T> doFetchDirectChildren(T parent) {
-        return doFetchDirectChildren(parent, null);
-    }
-
     /**
      * Returns depth of item in the tree starting from zero representing a root.
      * 
@@ -428,27 +459,23 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     protected void removeChildren(Object id) {
         // Clean up removed nodes from child map
-        Iterator<Entry<T, Set<T>>> iterator = childMap.entrySet().iterator();
-        Set<T> invalidatedChildren = new HashSet<>();
-        while (iterator.hasNext()) {
-            Entry<T, Set<T>> entry = iterator.next();
-            T key = entry.getKey();
-            if (key != null && getDataProvider().getId(key).equals(id)) {
-                invalidatedChildren.addAll(entry.getValue());
-                iterator.remove();
-            }
+        Set<Object> invalidatedChildren = childMap.remove(id);
+        if (expandedItemIds.remove(id) || id == null) {
+            invalidateSubtreeSize(id);
+        }
+        if (invalidatedChildren != null) {
+            invalidatedChildren.forEach(x -> {
+                removeChildren(x);
+                parentIdMap.remove(x);
+            });
         }
-        expandedItemIds.remove(id);
-        invalidatedChildren.stream().map(getDataProvider()::getId)
-                .forEach(x -> {
-                    removeChildren(x);
-                    parentIdMap.remove(x);
-                });
     }
 
     /**
-     * Finds the current index of given object. This is based on a search in
-     * flattened version of the hierarchy.
+     * Finds the current index of given object. The index is computed from the
+     * position of the object among its siblings and the sizes of the expanded
+     * subtrees preceding it, falling back to a search in flattened version of
+     * the hierarchy for objects whose parent is not known yet.
      *
      * @param target
      *            the target object to find
@@ -459,12 +486,124 @@ public class HierarchyMapper<T, F> implements Serializable {
             return Optional.empty();
         }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
-                .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
+        Object id = getDataProvider().getId(target);
+        int index = parentIdMap.containsKey(id) ? findIndex(target) : -1;
+        if (index < 0) {
+            index = scanIndex(id);
+        }
         return Optional.ofNullable(index < 0 ? null : index);
     }
 
+    /**
+     * Computes the index of a registered item from the index of its parent,
+     * the position of the item among the children of the parent and the
+     * subtree sizes of the preceding siblings.
+     *
+     * @param item
+     *            the item registered as a child of its parent
+     * @return the index of the item or a negative value if the item is not
+     *         visible under its registered parent
+     */
+    private int findIndex(T item) {
+        T parent = getParentOfItem(item);
+        int index = 0;
+        if (parent != null) {
+            if (!isExpanded(parent)
+                    || !parentIdMap.containsKey(getDataProvider().getId(parent))) {
+                return -1;
+            }
+            int parentIndex = findIndex(parent);
+            if (parentIndex < 0) {
+                return -1;
+            }
+            index = parentIndex + 1;
+        }
+        Object id = getDataProvider().getId(item);
+        for (T sibling : fetchAndRegisterChildren(parent, null)) {
+            if (id.equals(getDataProvider().getId(sibling))) {
+                return index;
+            }
+            index += 1 + getSubtreeSize(sibling);
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the index of the item with the given id by a search in flattened
+     * version of the hierarchy.
+     *
+     * @param id
+     *            the item id
+     * @return the index of the item or a negative value if the item is not
+     *         found
+     */
+    private int scanIndex(Object id) {
+        int index = 0;
+        Iterator<T> iterator = getHierarchy(null).iterator();
+        while (iterator.hasNext()) {
+            if (id.equals(getDataProvider().getId(iterator.next()))) {
+                return index;
+            }
+            ++index;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of visible descendants of the given item. The size is
+     * cached for expanded items until the hierarchy below them changes.
+     *
+     * @param parent
+     *            the parent item or {@code null} for the whole tree
+     * @return the number of visible descendants, zero for collapsed items
+     */
+    private int getSubtreeSize(T parent) {
+        if (!isExpanded(parent)) {
+            return 0;
+        }
+        Object id = parent == null ? null : getDataProvider().getId(parent);
+        Integer size = subtreeSizes.get(id);
+        if (size == null) {
+            int count = 0;
+            for (T child : fetchAndRegisterChildren(parent, null)) {
+                count += 1 + getSubtreeSize(child);
+            }
+            size = count;
+            if (isExpanded(parent)) {
+                subtreeSizes.put(id, size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Drops the cached subtree sizes of the item with the given id and all
+     * its ancestors.
+     *
+     * @param id
+     *            the item id or {@code null} for the root
+     */
+    private void invalidateSubtreeSize(Object id) {
+        if (subtreeSizes.isEmpty()) {
+            return;
+        }
+        Object current = id;
+        while (current != null) {
+            subtreeSizes.remove(current);
+            T parent = parentIdMap.get(current);
+            current = parent == null ? null : getDataProvider().getId(parent);
+        }
+        subtreeSizes.remove(null);
+    }
+
+    /**
+     * Discards all cached subtree sizes. Should be called whenever the data of
+     * the data provider has changed.
+     */
+    public void invalidateSubtreeSizes() {
+        subtreeSizes.clear();
+    }
+
     /**
      * Gets the full hierarchy tree starting from given node.
      *
@@ -529,17 +668,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of all children under the parent
      */
     private Stream<T> getFlatChildrenStream(T parent, boolean includeParent) {
-        List<T> childList = Collections.emptyList();
-        if (isExpanded(parent)) {
-            childList = doFetchDirectChildren(parent)
-                    .collect(Collectors.toList());
-            if (childList.isEmpty()) {
-                removeChildren(parent == null ? null
-                        : getDataProvider().getId(parent));
-            } else {
-                registerChildren(parent, childList);
-            }
-        }
+        List<T> childList = fetchAndRegisterChildren(parent, null);
         return combineParentAndChildStreams(parent,
                 childList.stream().flatMap(this::getFlatChildrenStream),
                 includeParent);
@@ -558,20 +687,39 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     private Stream<T> getChildrenStream(T parent, Range range,
             boolean includeParent) {
+        List<T> childList = fetchAndRegisterChildren(parent, range);
+        return combineParentAndChildStreams(parent,
+                childList.stream(),
+                includeParent);
+    }
+
+    /**
+     * Fetches the direct children of given parent if it is expanded, and
+     * registers them into inner structures.
+     *
+     * @param parent
+     *            the parent node
+     * @param range
+     *            the range of direct children to fetch, null means full range
+     * @return the fetched children, empty if the parent is collapsed
+     */
+    private List<T> fetchAndRegisterChildren(T parent, Range range) {
         List<T> childList = Collections.emptyList();
         if (isExpanded(parent)) {
             childList = doFetchDirectChildren(parent, range)
                     .collect(Collectors.toList());
-            if (childList.isEmpty()) {
-                removeChildren(parent == null ? null
-                        : getDataProvider().getId(parent));
-            } else {
-                registerChildren(parent, childList);
-            }
+            registerFetchedChildren(parent, childList);
+        }
+        return childList;
+    }
+
+    private void registerFetchedChildren(T parent, List<T> childList) {
+        if (childList.isEmpty()) {
+            removeChildren(
+                    parent == null ? null : getDataProvider().getId(parent));
+        } else {
+            registerChildren(parent, childList);
         }
-        return combineParentAndChildStreams(parent,
-                childList.stream(),
-                includeParent);
     }
 
 
@@ -585,9 +733,14 @@ public class HierarchyMapper<T, F> implements Serializable {
      *            list of parents children to be registered.
      */
     protected void registerChildren(T parent, List<T> childList) {
-        childMap.put(parent, new HashSet<>(childList));
-        childList.forEach(
-                x -> parentIdMap.put(getDataProvider().getId(x), parent));
+        Set<Object> childIds = new HashSet<>();
+        childList.forEach(x -> {
+            Object id = getDataProvider().getId(x);
+            childIds.add(id);
+            parentIdMap.put(id, parent);
+        });
+        childMap.put(parent == null ? null : getDataProvider().getId(parent),
+                childIds);
     }
 
     /**
@@ -616,6 +769,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         childMap.clear();
         parentIdMap.clear();
         expandedItemIds.clear();
+        subtreeSizes.clear();
     }
 
     /**
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.BackendDataProviderTest.StrBeanBackEndDataProvider;
+import com.vaadin.flow.function.SerializablePredicate;
+
+public class CachingDataProviderTest extends
+        DataProviderTestBase<BackEndDataProvider<StrBean, SerializablePredicate<StrBean>>> {
+
+    private List<Query<Integer, Void>> backEndQueries = new ArrayList<>();
+    private AtomicInteger sizeCount = new AtomicInteger();
+
+    @Override
+    protected BackEndDataProvider<StrBean, SerializablePredicate<StrBean>> createDataProvider() {
+        return dataProvider = new CachingDataProvider<>(
+                new StrBeanBackEndDataProvider(data));
+    }
+
+    @Override
+    protected void setSortOrder(List<QuerySortOrder> sortOrder,
+            Comparator<StrBean> comp) {
+        getDataProvider().setSortOrders(sortOrder);
+    }
+
+    private CachingDataProvider<Integer, Void> createIntegerProvider(
+            int size) {
+        CachingDataProvider<Integer, Void> provider = new CachingDataProvider<>(
+                DataProvider.fromCallbacks(query -> {
+                    backEndQueries.add(query);
+                    return IntStream.range(query.getOffset(), size)
+                            .limit(query.getLimit()).boxed();
+                }, query -> {
+                    sizeCount.incrementAndGet();
+                    return size;
+                }));
+        provider.setPageSize(10);
+        provider.setPrefetchPages(1);
+        return provider;
+    }
+
+    private static List<Integer> fetch(DataProvider<Integer, Void> provider,
+            int offset, int limit) {
+        return provider
+                .fetch(new Query<>(offset, limit, Collections.emptyList(),
+                        null, null))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void fetch_followingRangeServedFromPrefetchedPage() {
+        CachingDataProvider<Integer, Void> provider = createIntegerProvider(
+                100);
+
+        Assert.assertEquals(range(5, 15), fetch(provider, 5, 10));
+        Assert.assertEquals(1, backEndQueries.size());
+        Assert.assertEquals(0, backEndQueries.get(0).getOffset());
+        Assert.assertEquals(30, backEndQueries.get(0).getLimit());
+
+        Assert.assertEquals(range(15, 30), fetch(provider, 15, 15));
+        Assert.assertEquals(range(3, 8), fetch(provider, 3, 5));
+        Assert.assertEquals(1, backEndQueries.size());
+
+        Assert.assertEquals(range(30, 35), fetch(provider, 30, 5));
+        Assert.assertEquals(2, backEndQueries.size());
+        Assert.assertEquals(30, backEndQueries.get(1).getOffset());
+    }
+
+    @Test
+    public void fetch_scrollingBackwards_precedingPagesPrefetched() {
+        CachingDataProvider<Integer, Void> provider = createIntegerProvider(
+                100);
+
+        fetch(provider, 80, 10);
+        Assert.assertEquals(range(60, 70), fetch(provider, 60, 10));
+
+        Assert.assertEquals(2, backEndQueries.size());
+        Assert.assertEquals(50, backEndQueries.get(1).getOffset());
+
+        fetch(provider, 50, 10);
+        Assert.assertEquals(2, backEndQueries.size());
+    }
+
+    @Test
+    public void fetch_endOfData_partialRange() {
+        CachingDataProvider<Integer, Void> provider = createIntegerProvider(
+                25);
+
+        Assert.assertEquals(range(20, 25), fetch(provider, 20, 10));
+        Assert.assertEquals(range(0, 0), fetch(provider, 30, 10));
+        Assert.assertEquals(range(22, 25), fetch(provider, 22, 10));
+        Assert.assertEquals(1, backEndQueries.size());
+    }
+
+    @Test
+    public void size_cachedUntilRefresh() {
+        CachingDataProvider<Integer, Void> provider = createIntegerProvider(
+                100);
+        AtomicInteger events = new AtomicInteger();
+        provider.addDataProviderListener(event -> events.incrementAndGet());
+
+        Assert.assertEquals(100, provider.size(new Query<>()));
+        Assert.assertEquals(100, provider.size(new Query<>()));
+        fetch(provider, 0, 10);
+        Assert.assertEquals(1, sizeCount.get());
+
+        provider.refreshAll();
+
+        Assert.assertEquals(1, events.get());
+        Assert.assertEquals(100, provider.size(new Query<>()));
+        fetch(provider, 0, 10);
+        Assert.assertEquals(2, sizeCount.get());
+        Assert.assertEquals(2, backEndQueries.size());
+    }
+
+    @Test
+    public void maxCachedPages_leastRecentlyUsedPageEvicted() {
+        CachingDataProvider<Integer, Void> provider = createIntegerProvider(
+                100);
+        provider.setPrefetchPages(0);
+        provider.setMaxCachedPages(2);
+
+        fetch(provider, 0, 10);
+        fetch(provider, 10, 10);
+        fetch(provider, 0, 10);
+        fetch(provider, 20, 10);
+        Assert.assertEquals(3, backEndQueries.size());
+
+        // Page 1 was evicted, page 0 was not
+        fetch(provider, 0, 10);
+        Assert.assertEquals(3, backEndQueries.size());
+        fetch(provider, 10, 10);
+        Assert.assertEquals(4, backEndQueries.size());
+    }
+
+    @Test
+    public void refreshItem_cachedItemReplaced() {
+        List<StrBean> beans = new ArrayList<>(data.subList(0, 20));
+        CachingDataProvider<StrBean, Void> provider = new CachingDataProvider<>(
+                new CallbackDataProvider<>(
+                        query -> beans.stream().skip(query.getOffset())
+                                .limit(query.getLimit()),
+                        query -> beans.size(), StrBean::getId));
+        Query<StrBean, Void> query = new Query<>(0, 10,
+                Collections.emptyList(), null, null);
+        provider.fetch(query).count();
+
+        StrBean updated = new StrBean("Updated", beans.get(3).getId(), 0);
+        provider.refreshItem(updated);
+
+        List<StrBean> fetched = provider.fetch(query)
+                .collect(Collectors.toList());
+        Assert.assertSame(updated, fetched.get(3));
+        Assert.assertEquals(beans.subList(4, 10), fetched.subList(4, 10));
+    }
+
+    @Test
+    public void clearCacheDuringFetch_fetchedPagesNotCached() {
+        List<CachingDataProvider<Integer, Void>> providers = new ArrayList<>();
+        CachingDataProvider<Integer, Void> provider = new CachingDataProvider<>(
+                DataProvider.fromCallbacks(query -> {
+                    backEndQueries.add(query);
+                    if (backEndQueries.size() == 1) {
+                        // Refreshed by another session while fetching
+                        providers.get(0).clearCache();
+                    }
+                    return IntStream.range(query.getOffset(), 100)
+                            .limit(query.getLimit()).boxed();
+                }, query -> 100));
+        providers.add(provider);
+        provider.setPageSize(10);
+
+        fetch(provider, 0, 10);
+        fetch(provider, 0, 10);
+
+        Assert.assertEquals(2, backEndQueries.size());
+        fetch(provider, 0, 10);
+        Assert.assertEquals(2, backEndQueries.size());
+    }
+}
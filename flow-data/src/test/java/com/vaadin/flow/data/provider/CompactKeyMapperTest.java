@@ -0,0 +1,157 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactKeyMapperTest {
+
+    private CompactKeyMapper<StrBean> mapper = new CompactKeyMapper<>(
+            StrBean::getId);
+
+    @Test
+    public void key_sameIdSameKey_differentIdsDifferentKeys() {
+        StrBean first = new StrBean("first", 1, 0);
+        StrBean second = new StrBean("second", 2, 0);
+
+        String key = mapper.key(first);
+        Assert.assertEquals(key, mapper.key(new StrBean("copy", 1, 0)));
+        Assert.assertNotEquals(key, mapper.key(second));
+        Assert.assertSame(first, mapper.get(key));
+        Assert.assertTrue(mapper.has(second));
+        Assert.assertEquals(2, mapper.size());
+        Assert.assertEquals("null", mapper.key(null));
+    }
+
+    @Test
+    public void get_malformedKeys_returnNull() {
+        mapper.key(new StrBean("first", 1, 0));
+
+        for (String key : new String[] { null, "", "null", "-1", "0", "a1",
+                "99999999999", "2" }) {
+            Assert.assertNull(key, mapper.get(key));
+            Assert.assertFalse(key, mapper.containsKey(key));
+        }
+    }
+
+    @Test
+    public void removeManyObjects_remainingObjectsFound_keysNotReused() {
+        Set<String> keys = new HashSet<>();
+        StrBean[] beans = new StrBean[1000];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = new StrBean("bean", i, 0);
+            keys.add(mapper.key(beans[i]));
+        }
+        for (int i = 0; i < beans.length; i++) {
+            if (i % 10 != 0) {
+                mapper.remove(beans[i]);
+            }
+        }
+
+        Assert.assertEquals(100, mapper.size());
+        for (int i = 0; i < beans.length; i++) {
+            Assert.assertEquals(i % 10 == 0, mapper.has(beans[i]));
+        }
+        for (String key : keys) {
+            StrBean bean = mapper.get(key);
+            Assert.assertTrue(bean == null || bean.getId() % 10 == 0);
+        }
+        Assert.assertFalse(keys.contains(mapper.key(beans[1])));
+    }
+
+    @Test
+    public void nullObject_notMapped_ignored() {
+        StrBean bean = new StrBean("first", 1, 0);
+        String key = mapper.key(bean);
+
+        Assert.assertFalse(mapper.has(null));
+        mapper.refresh(null);
+        mapper.remove(null);
+
+        Assert.assertSame(bean, mapper.get(key));
+        Assert.assertEquals(1, mapper.size());
+    }
+
+    @Test
+    public void refresh_latestInstanceReturned() {
+        String key = mapper.key(new StrBean("original", 1, 0));
+        StrBean updated = new StrBean("updated", 1, 0);
+
+        mapper.refresh(updated);
+        mapper.refresh(new StrBean("unmapped", 2, 0));
+
+        Assert.assertSame(updated, mapper.get(key));
+        Assert.assertEquals(1, mapper.size());
+    }
+
+    @Test
+    public void setIdentifierGetter_mappingsUpdated() {
+        StrBean bean = new StrBean("bean", 1, 0);
+        String key = mapper.key(bean);
+
+        mapper.setIdentifierGetter(StrBean::getValue);
+
+        Assert.assertTrue(mapper.has(new StrBean("bean", 2, 0)));
+        Assert.assertFalse(mapper.has(new StrBean("other", 1, 0)));
+        Assert.assertSame(bean, mapper.get(key));
+    }
+
+    @Test
+    public void removeAll_nothingMapped() {
+        StrBean bean = new StrBean("bean", 1, 0);
+        String key = mapper.key(bean);
+
+        mapper.removeAll();
+
+        Assert.assertEquals(0, mapper.size());
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertNotEquals(key, mapper.key(bean));
+    }
+
+    @Test
+    public void serialize_mappingsRestored()
+            throws IOException, ClassNotFoundException {
+        for (int i = 0; i < 100; i++) {
+            mapper.key(new StrBean("bean", i, 0));
+        }
+        String key = mapper.key(new StrBean("last", 100, 0));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(mapper);
+        }
+        CompactKeyMapper<StrBean> copy;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (CompactKeyMapper<StrBean>) in.readObject();
+        }
+
+        Assert.assertEquals(101, copy.size());
+        Assert.assertEquals("last", copy.get(key).getValue());
+        Assert.assertEquals(key, copy.key(new StrBean("last", 100, 0)));
+        Assert.assertTrue(copy.has(new StrBean("bean", 50, 0)));
+    }
+}
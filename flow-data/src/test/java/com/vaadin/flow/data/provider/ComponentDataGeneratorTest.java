@@ -0,0 +1,139 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.dom.Element;
+
+import elemental.json.Json;
+
+public class ComponentDataGeneratorTest {
+
+    @Tag("span")
+    public static class TestComponent extends Component {
+        private String item;
+
+        public TestComponent(String item) {
+            this.item = item;
+        }
+    }
+
+    private AtomicInteger createCount = new AtomicInteger();
+    private Element container = new Element("div");
+    private ComponentDataGenerator<String> generator;
+
+    @Before
+    public void setup() {
+        ComponentRenderer<TestComponent, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createCount.incrementAndGet();
+                    return new TestComponent(item);
+                }, (component, item) -> {
+                    ((TestComponent) component).item = item;
+                    return component;
+                });
+        generator = new ComponentDataGenerator<>(renderer, item -> item);
+        generator.setContainer(container);
+        generator.setNodeIdPropertyName("nodeId");
+    }
+
+    private TestComponent render(String item) {
+        generator.generateData(item, Json.createObject());
+        return (TestComponent) generator.getRenderedComponent(item);
+    }
+
+    @Test
+    public void recyclingDisabled_destroyedComponentRemoved() {
+        TestComponent first = render("a");
+        generator.destroyData("a");
+        TestComponent second = render("b");
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, createCount.get());
+        Assert.assertNull(first.getElement().getParent());
+        Assert.assertEquals(1, container.getChildCount());
+    }
+
+    @Test
+    public void recyclingEnabled_destroyedComponentUpdatedForNewItem() {
+        generator.setRecycledComponentPoolSize(1);
+
+        TestComponent first = render("a");
+        generator.destroyData("a");
+        Assert.assertEquals("Recycled component should stay attached",
+                container, first.getElement().getParent());
+
+        TestComponent second = render("b");
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals("b", second.item);
+        Assert.assertEquals(1, createCount.get());
+        Assert.assertEquals(1, container.getChildCount());
+    }
+
+    @Test
+    public void recyclingEnabled_poolIsBounded() {
+        generator.setRecycledComponentPoolSize(1);
+
+        TestComponent first = render("a");
+        TestComponent second = render("b");
+        generator.destroyData("a");
+        generator.destroyData("b");
+
+        Assert.assertEquals(container, first.getElement().getParent());
+        Assert.assertNull(second.getElement().getParent());
+        Assert.assertEquals(1, container.getChildCount());
+    }
+
+    @Test
+    public void destroyAllData_recycledComponentsRemoved() {
+        generator.setRecycledComponentPoolSize(2);
+
+        TestComponent first = render("a");
+        render("b");
+        generator.destroyData("a");
+        generator.destroyAllData();
+
+        Assert.assertNull(first.getElement().getParent());
+        Assert.assertEquals(0, container.getChildCount());
+
+        render("c");
+        Assert.assertEquals(3, createCount.get());
+    }
+
+    @Test
+    public void poolShrunk_extraRecycledComponentsRemoved() {
+        generator.setRecycledComponentPoolSize(2);
+
+        render("a");
+        render("b");
+        generator.destroyData("a");
+        generator.destroyData("b");
+        Assert.assertEquals(2, container.getChildCount());
+
+        generator.setRecycledComponentPoolSize(0);
+
+        Assert.assertEquals(0, container.getChildCount());
+    }
+}
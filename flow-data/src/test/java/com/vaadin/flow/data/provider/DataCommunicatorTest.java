@@ -16,9 +16,13 @@
 package com.vaadin.flow.data.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -35,10 +39,14 @@ import org.mockito.MockitoAnnotations;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.UIFootprint;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -342,6 +350,371 @@ public class DataCommunicatorTest {
         Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
     }
 
+    @Test
+    public void footprint_reportsActiveAndMappedKeys() {
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Map<String, Integer> counts = new UIFootprint(ui)
+                .getContributedCounts();
+        Assert.assertEquals(Integer.valueOf(50),
+                counts.get("dataCommunicator.activeKeys"));
+        Assert.assertEquals(Integer.valueOf(50),
+                counts.get("dataCommunicator.mappedKeys"));
+
+        element.removeFromParent();
+
+        Assert.assertEquals(Collections.emptyMap(),
+                new UIFootprint(ui).getContributedCounts());
+    }
+
+    @Test
+    public void compactKeyMapper_passivatedRangeReleased() {
+        CompactKeyMapper<Item> keyMapper = new CompactKeyMapper<>();
+        dataCommunicator.setKeyMapper(keyMapper);
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Assert.assertEquals(50, keyMapper.size());
+
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+        Assert.assertEquals(
+                "Passivated keys are kept until the client confirms", 100,
+                keyMapper.size());
+
+        dataCommunicator.confirmUpdate(lastUpdateId);
+        fakeClientCommunication();
+        Assert.assertEquals(50, keyMapper.size());
+        Assert.assertEquals(Integer.valueOf(50),
+                new UIFootprint(ui).getContributedCounts()
+                        .get("dataCommunicator.mappedKeys"));
+    }
+
+    @Test
+    public void asyncDataProvider_flushedWhenFetchCompletes() {
+        AsyncItemDataProvider dataProvider = useAsyncDataProvider();
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertNull("Nothing should be sent before the data is fetched",
+                lastSet);
+        Assert.assertEquals(1, dataProvider.fetches.size());
+        Assert.assertEquals(1, dataProvider.sizes.size());
+
+        dataProvider.completeFetch(0);
+        fakeClientCommunication();
+        Assert.assertNull(lastSet);
+
+        dataProvider.sizes.get(0).complete(100);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals("No synchronous fetch should be done", 1,
+                dataProvider.fetches.size());
+        Assert.assertEquals(1, dataProvider.sizes.size());
+    }
+
+    @Test
+    public void asyncDataProvider_rangeExtended_onlyMissingItemsFetched() {
+        AsyncItemDataProvider dataProvider = useAsyncDataProvider();
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.completeFetch(0);
+        dataProvider.sizes.get(0).complete(100);
+        fakeClientCommunication();
+
+        dataCommunicator.setRequestedRange(0, 70);
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, dataProvider.fetches.size());
+        Assert.assertEquals("Size should not be fetched again", 1,
+                dataProvider.sizes.size());
+        Query<Item, Object> query = dataProvider.queries.get(1);
+        Assert.assertEquals(50, query.getOffset());
+        Assert.assertEquals(20, query.getLimit());
+
+        dataProvider.completeFetch(1);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(50, 20), lastSet);
+    }
+
+    @Test
+    public void asyncDataProvider_supersededRangeCancelled() {
+        AsyncItemDataProvider dataProvider = useAsyncDataProvider();
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.completeFetch(0);
+        dataProvider.sizes.get(0).complete(1000);
+        fakeClientCommunication();
+
+        dataCommunicator.setRequestedRange(200, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(400, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(3, dataProvider.fetches.size());
+        Assert.assertTrue(dataProvider.fetches.get(1).isCancelled());
+        Assert.assertEquals(400, dataProvider.queries.get(2).getOffset());
+
+        dataProvider.completeFetch(2);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(400, 50), lastSet);
+        Assert.assertEquals(3, dataProvider.fetches.size());
+    }
+
+    @Test
+    public void asyncDataProvider_resetWhileFetching_dataFetchedAgain() {
+        AsyncItemDataProvider dataProvider = useAsyncDataProvider();
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertTrue(dataProvider.fetches.get(0).isCancelled());
+        Assert.assertEquals(2, dataProvider.fetches.size());
+
+        dataProvider.completeFetch(1);
+        dataProvider.sizes.get(1).complete(100);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+    }
+
+    @Test
+    public void fetchWithSizeDataProvider_oneQueryPerFlush() {
+        FetchWithSizeItemDataProvider dataProvider = Mockito
+                .spy(new FetchWithSizeItemDataProvider(100));
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(1))
+                .fetchWithSize(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.never()).fetch(Mockito.any());
+
+        dataCommunicator.setRequestedRange(0, 70);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(50, 20), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(2))
+                .fetchWithSize(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.never()).fetch(Mockito.any());
+    }
+
+    @Test
+    public void fetchWithSizeDataProvider_shortPage_sizeFromSameQuery() {
+        FetchWithSizeItemDataProvider dataProvider = Mockito
+                .spy(new FetchWithSizeItemDataProvider(100));
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        dataProvider.size = 60;
+        dataCommunicator.setRequestedRange(40, 50);
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(60);
+        Assert.assertEquals(Range.withLength(50, 10), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(2))
+                .fetchWithSize(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+    }
+
+    @Test
+    public void refresh_noSentItemCache_completeDataSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        Item item = useValueDataCommunicator(updates);
+
+        dataCommunicator.refresh(item);
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        JsonObject json = updates.get(0).getObject(0);
+        Assert.assertEquals(3, json.keys().length);
+        Assert.assertEquals("Item 0", json.getString("value"));
+    }
+
+    @Test
+    public void refresh_sentItemCache_onlyChangedPropertiesSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        Item item = useValueDataCommunicator(updates);
+        dataCommunicator.setSentItemCacheSize(50);
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        item.value = "Changed";
+        dataCommunicator.refresh(item);
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        JsonObject json = updates.get(0).getObject(0);
+        Assert.assertEquals(2, json.keys().length);
+        Assert.assertEquals(dataCommunicator.getKeyMapper().key(item),
+                json.getString("key"));
+        Assert.assertEquals("Changed", json.getString("value"));
+    }
+
+    @Test
+    public void refresh_sentItemCache_unchangedItemNotSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        Item item = useValueDataCommunicator(updates);
+        dataCommunicator.setSentItemCacheSize(50);
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        dataCommunicator.refresh(item);
+        fakeClientCommunication();
+
+        Assert.assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void refresh_sentItemCacheExceeded_completeDataSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        Item item = useValueDataCommunicator(updates);
+        dataCommunicator.setSentItemCacheSize(5);
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        // The first item has been evicted by the later ones
+        item.value = "Changed";
+        dataCommunicator.refresh(item);
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals(3, updates.get(0).getObject(0).keys().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setSentItemCacheSize_negative_throws() {
+        dataCommunicator.setSentItemCacheSize(-1);
+    }
+
+    private Item useValueDataCommunicator(List<JsonArray> updates) {
+        List<Item> items = IntStream.range(0, 10).mapToObj(Item::new)
+                .collect(Collectors.toList());
+        dataCommunicator = new DataCommunicator<>((item, json) -> {
+            json.put("value", item.value);
+            json.put("id", item.id);
+        }, arrayUpdater, updates::add, element.getNode());
+        dataCommunicator.setDataProvider(new ListDataProvider<>(items), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        return items.get(0);
+    }
+
+    private AsyncItemDataProvider useAsyncDataProvider() {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.accessSession(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    ((Command) invocation.getArguments()[1]).execute();
+                    return null;
+                });
+        VaadinSession session = new AlwaysLockedVaadinSession(service);
+        VaadinSession.setCurrent(session);
+        ui = new MockUI(session);
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                data -> {
+                }, element.getNode());
+
+        AsyncItemDataProvider dataProvider = new AsyncItemDataProvider();
+        dataCommunicator.setDataProvider(dataProvider, null);
+        return dataProvider;
+    }
+
+    /**
+     * Data provider with futures completed by the test.
+     */
+    private static class AsyncItemDataProvider
+            extends AbstractDataProvider<Item, Object>
+            implements AsyncDataProvider<Item, Object> {
+        private final List<Query<Item, Object>> queries = new ArrayList<>();
+        private final List<CompletableFuture<Stream<Item>>> fetches = new ArrayList<>();
+        private final List<CompletableFuture<Integer>> sizes = new ArrayList<>();
+
+        @Override
+        public boolean isInMemory() {
+            return false;
+        }
+
+        @Override
+        public CompletableFuture<Stream<Item>> fetchAsync(
+                Query<Item, Object> query) {
+            CompletableFuture<Stream<Item>> future = new CompletableFuture<>();
+            queries.add(query);
+            fetches.add(future);
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<Integer> sizeAsync(Query<Item, Object> query) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            sizes.add(future);
+            return future;
+        }
+
+        private void completeFetch(int index) {
+            Query<Item, Object> query = queries.get(index);
+            fetches.get(index).complete(IntStream
+                    .range(query.getOffset(),
+                            query.getOffset() + query.getLimit())
+                    .mapToObj(Item::new));
+        }
+    }
+
+    /**
+     * Data provider returning the size with the items.
+     */
+    private static class FetchWithSizeItemDataProvider
+            extends AbstractDataProvider<Item, Object>
+            implements FetchWithSizeDataProvider<Item, Object> {
+        private int size;
+
+        private FetchWithSizeItemDataProvider(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean isInMemory() {
+            return false;
+        }
+
+        @Override
+        public FetchResult<Item> fetchWithSize(Query<Item, Object> query) {
+            return new FetchResult<>(
+                    createItems(query).collect(Collectors.toList()), size);
+        }
+
+        @Override
+        public int size(Query<Item, Object> query) {
+            return size;
+        }
+
+        @Override
+        public Stream<Item> fetch(Query<Item, Object> query) {
+            return createItems(query);
+        }
+
+        private Stream<Item> createItems(Query<Item, Object> query) {
+            return IntStream.range(query.getOffset(), size)
+                    .limit(query.getLimit()).mapToObj(Item::new);
+        }
+    }
+
     private void fakeClientCommunication() {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
@@ -15,9 +15,16 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.SerializationUtils;
@@ -25,6 +32,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
 
 public class ListDataProviderTest
         extends DataProviderTestBase<ListDataProvider<StrBean>> {
@@ -250,4 +258,154 @@ public class ListDataProviderTest
         SerializationUtils.serialize(provider);
     }
 
+    @Test
+    public void fetchPages_sameFilterAndSorting_filteredAndSortedOnce() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        AtomicInteger filterCalls = new AtomicInteger();
+        SerializablePredicate<StrBean> filter = bean -> {
+            filterCalls.incrementAndGet();
+            return bean.getValue().equals("Foo");
+        };
+        SerializableComparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getId)::compare;
+        List<StrBean> expected = data.stream().filter(filter)
+                .sorted(sorting).collect(Collectors.toList());
+        filterCalls.set(0);
+
+        List<StrBean> fetched = new ArrayList<>();
+        for (int offset = 0; offset < expected.size(); offset += 5) {
+            dataProvider.fetch(new Query<>(offset, 5, null, sorting, filter))
+                    .forEach(fetched::add);
+        }
+        int size = dataProvider.size(new Query<>(filter));
+
+        Assert.assertEquals(expected, fetched);
+        Assert.assertEquals(expected.size(), size);
+        Assert.assertEquals(data.size(), filterCalls.get());
+    }
+
+    @Test
+    public void fetch_refreshAllOrBackendSizeChange_itemsFilteredAgain() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        AtomicInteger filterCalls = new AtomicInteger();
+        SerializablePredicate<StrBean> filter = bean -> {
+            filterCalls.incrementAndGet();
+            return true;
+        };
+        Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(
+                filter);
+
+        dataProvider.fetch(query).count();
+        dataProvider.refreshAll();
+        dataProvider.fetch(query).count();
+        Assert.assertEquals(2 * data.size(), filterCalls.get());
+
+        StrBean added = new StrBean("Added", 1000, 0);
+        data.add(added);
+
+        Assert.assertTrue(
+                dataProvider.fetch(query).anyMatch(added::equals));
+        Assert.assertEquals(data.size(), dataProvider.size(query));
+    }
+
+    @Test
+    public void fetch_filterChangedDuringFetch_staleItemsNotCached() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        AtomicInteger filterCalls = new AtomicInteger();
+        SerializablePredicate<StrBean> filter = bean -> {
+            if (filterCalls.incrementAndGet() == 1) {
+                // Another session changes the filter of the shared provider
+                dataProvider.setFilter(StrBean::getValue, "Foo"::equals);
+            }
+            return true;
+        };
+        Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(
+                filter);
+
+        dataProvider.fetch(query).count();
+
+        Assert.assertTrue(dataProvider.fetch(query)
+                .allMatch(bean -> bean.getValue().equals("Foo")));
+    }
+
+    @Test
+    public void fetch_noFilterOrSorting_backendChangesVisible() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        StrBean first = data.get(0);
+
+        data.set(0, new StrBean("Replaced", 1000, 0));
+
+        Assert.assertFalse(
+                dataProvider.fetch(new Query<>()).anyMatch(first::equals));
+        Assert.assertEquals(data.size(),
+                dataProvider.fetch(new Query<>(1, 1000, null, null, null))
+                        .count() + 1);
+    }
+
+    @Test
+    public void parallelExecution_sameResultAsSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ListDataProvider<StrBean> sequential = getDataProvider();
+            ListDataProvider<StrBean> parallel = DataProvider
+                    .ofCollection(data);
+            parallel.setParallelExecution(pool, 0);
+            Set<Thread> filterThreads = ConcurrentHashMap.newKeySet();
+            SerializablePredicate<StrBean> filter = bean -> {
+                filterThreads.add(Thread.currentThread());
+                return bean.getId() % 3 != 0;
+            };
+            SerializableComparator<StrBean> sorting = Comparator
+                    .comparing(StrBean::getValue)
+                    .thenComparing(StrBean::getId)::compare;
+
+            Assert.assertEquals(
+                    sequential.fetch(new Query<>(10, 20, null, sorting, filter))
+                            .collect(Collectors.toList()),
+                    parallel.fetch(new Query<>(10, 20, null, sorting, filter))
+                            .collect(Collectors.toList()));
+            Assert.assertEquals(sequential.size(new Query<>(filter)),
+                    parallel.size(new Query<>(bean -> filter.test(bean))));
+            Assert.assertFalse(parallel
+                    .fetch(new Query<>(0, 5, null, sorting, filter))
+                    .isParallel());
+            Assert.assertTrue(filterThreads.stream()
+                    .anyMatch(ForkJoinWorkerThread.class::isInstance));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelExecution_belowThreshold_filteredInCallingThread() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        dataProvider.setParallelExecution(ForkJoinPool.commonPool(),
+                data.size() + 1);
+        Set<Thread> filterThreads = ConcurrentHashMap.newKeySet();
+
+        dataProvider.fetch(new Query<>(bean -> {
+            filterThreads.add(Thread.currentThread());
+            return true;
+        })).count();
+
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()),
+                filterThreads);
+    }
+
+    @Test
+    public void parallelExecution_poolNotSerialized() {
+        ListDataProvider<StrBean> dataProvider = getDataProvider();
+        dataProvider.setParallelExecution(ForkJoinPool.commonPool(), 10);
+
+        ListDataProvider<StrBean> copy = SerializationUtils
+                .roundtrip(dataProvider);
+
+        Assert.assertNull(copy.getParallelExecutionPool());
+        Assert.assertEquals(data.size(), copy.size(new Query<>(bean -> true)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelExecution_negativeThreshold_throws() {
+        getDataProvider().setParallelExecution(ForkJoinPool.commonPool(), -1);
+    }
 }
@@ -25,6 +25,9 @@ import java.util.stream.Stream;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.vaadin.flow.data.provider.FetchResult;
+import com.vaadin.flow.data.provider.FetchWithSizeDataProvider;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.hierarchy.HierarchyMapper;
 import com.vaadin.flow.data.provider.hierarchy.TreeData;
 import com.vaadin.flow.data.provider.hierarchy.TreeDataProvider;
@@ -47,6 +50,27 @@ public class HierarchyMapperWithDataTest {
     private List<Node> roots;
     private int mapSize;
 
+    private static class FetchWithSizeTreeDataProvider
+            extends TreeDataProvider<Node> implements
+            FetchWithSizeDataProvider<Node, SerializablePredicate<Node>> {
+
+        private FetchWithSizeTreeDataProvider(TreeData<Node> treeData) {
+            super(treeData);
+        }
+
+        @Override
+        public FetchResult<Node> fetchWithSize(
+                Query<Node, SerializablePredicate<Node>> query) {
+            HierarchicalQuery<Node, SerializablePredicate<Node>> hierarchicalQuery = (HierarchicalQuery<Node, SerializablePredicate<Node>>) query;
+            return new FetchResult<>(
+                    fetchChildren(hierarchicalQuery)
+                            .collect(Collectors.toList()),
+                    getChildCount(new HierarchicalQuery<>(
+                            hierarchicalQuery.getFilter().orElse(null),
+                            hierarchicalQuery.getParent())));
+        }
+    }
+
     private void setupData() {
         mapSize = ROOT_COUNT;
         data = new TreeData<>();
@@ -67,6 +91,22 @@ public class HierarchyMapperWithDataTest {
         mapper = new HierarchyMapper<>(provider);
     }
 
+    @Test
+    public void fetchRootItemsWithSize_itemsAndRootSizeReturned() {
+        mapper = new HierarchyMapper<>(new FetchWithSizeTreeDataProvider(data));
+
+        FetchResult<Node> result = mapper
+                .fetchRootItemsWithSize(Range.withLength(1, 2));
+
+        assertEquals(roots.subList(1, 3), result.getItems());
+        assertEquals(ROOT_COUNT, result.getSize());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fetchRootItemsWithSize_unsupportedDataProvider_throws() {
+        mapper.fetchRootItemsWithSize(Range.withLength(0, 2));
+    }
+
     @Test
     public void expandRootNode() {
         assertEquals("Map size should be equal to root node count", ROOT_COUNT,
@@ -225,6 +265,42 @@ public class HierarchyMapperWithDataTest {
         verifyFetchIsCorrect(expectedResult, range);
     }
 
+    @Test
+    public void getIndexOf_matchesFlattenedHierarchy() {
+        expand(testData.get(0));
+        expand(testData.get(1));
+        Node lastRoot = roots.get(roots.size() - 1);
+        expand(lastRoot);
+        expand(testData.get(testData.indexOf(lastRoot) + 1));
+
+        List<Node> flattened = mapper
+                .fetchHierarchyItems(Range.between(0, mapper.getTreeSize()))
+                .collect(Collectors.toList());
+        for (Node node : testData) {
+            int expected = flattened.indexOf(node);
+            assertEquals("Unexpected index for " + node,
+                    expected < 0 ? null : Integer.valueOf(expected),
+                    mapper.getIndexOf(node).orElse(null));
+            assertEquals("Unexpected index for " + node,
+                    Integer.valueOf(expected), mapper.getIndex(node));
+        }
+    }
+
+    @Test
+    public void removeItem_invalidateSubtreeSizes_sizeUpdated() {
+        expand(testData.get(0));
+        expand(testData.get(1));
+        assertEquals(ROOT_COUNT + PARENT_COUNT + LEAF_COUNT,
+                mapper.getTreeSize());
+
+        data.removeItem(testData.get(1));
+        mapper.invalidateSubtreeSizes();
+
+        assertEquals(ROOT_COUNT + PARENT_COUNT - 1, mapper.getTreeSize());
+        assertEquals(Integer.valueOf(1),
+                mapper.getIndexOf(testData.get(2 + LEAF_COUNT)).orElse(null));
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
@@ -77,6 +77,20 @@ public class HierarchyMapperWithNumerousDataTest {
         checkMapSize();
     }
 
+    @Test(timeout = 1000)
+    public void findIndexAndCollapse() {
+        expand(testData.get(0));
+        Node last = testData.get(testData.size() - 1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(PARENT_COUNT),
+                    mapper.getIndexOf(last).orElse(null));
+            assertEquals(Integer.valueOf(0), mapper.getParentIndex(last));
+        }
+        Range removed = mapper.collapse(testData.get(0), 0);
+        assertEquals(Range.withLength(1, PARENT_COUNT), removed);
+        assertEquals(ROOT_COUNT, mapper.getTreeSize());
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
@@ -31,6 +31,7 @@ import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.component.page.LoadingIndicatorConfiguration;
 import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableRunnable;
 import com.vaadin.flow.i18n.I18NProvider;
@@ -56,6 +57,7 @@ import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.ErrorHandlingCommand;
+import com.vaadin.flow.server.FutureAccess;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServlet;
@@ -441,6 +443,13 @@ public class UI extends Component
      * currently locked, the command will be run before that lock is released.
      * </p>
      * <p>
+     * If per-UI access queues are enabled, see
+     * {@link DeploymentConfiguration#isUIAccessQueueEnabled()}, the commands
+     * of this UI are run in order through a queue of their own so that many
+     * commands for this UI do not delay the commands of other UIs in the same
+     * session.
+     * </p>
+     * <p>
      * RPC handlers for components inside this UI do not need to use this method
      * as the session is automatically locked by the framework during RPC
      * handling.
@@ -493,7 +502,7 @@ public class UI extends Component
             return null;
         }
 
-        return session.access(new ErrorHandlingCommand() {
+        ErrorHandlingCommand accessCommand = new ErrorHandlingCommand() {
             @Override
             public void execute() {
                 accessSynchronously(command, detachHandler);
@@ -513,7 +522,22 @@ public class UI extends Component
                     getLogger().error(e.getMessage(), e);
                 }
             }
-        });
+        };
+
+        if (isAccessQueueEnabled(session)) {
+            FutureAccess future = new FutureAccess(session, accessCommand);
+            internals.addPendingAccess(session, future);
+            return future;
+        }
+        return session.access(accessCommand);
+    }
+
+    private static boolean isAccessQueueEnabled(VaadinSession session) {
+        // The session configuration cannot be read without holding the lock
+        DeploymentConfiguration configuration = session.getService()
+                .getDeploymentConfiguration();
+        return configuration != null
+                && configuration.isUIAccessQueueEnabled();
     }
 
     /**
@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.component.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +25,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -63,6 +68,9 @@ import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.router.internal.AfterNavigationHandler;
 import com.vaadin.flow.router.internal.BeforeEnterHandler;
 import com.vaadin.flow.router.internal.BeforeLeaveHandler;
+import com.vaadin.flow.server.FootprintContributor;
+import com.vaadin.flow.server.FutureAccess;
+import com.vaadin.flow.server.UIFootprint;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.WebBrowser;
@@ -171,6 +179,8 @@ public class UIInternals implements Serializable {
 
     private HashMap<Class<?>, List<?>> listeners = new HashMap<>();
 
+    private ArrayList<FootprintContributor> footprintContributors;
+
     private Location lastHandledNavigation = null;
 
     private ContinueNavigationAction continueNavigationAction = null;
@@ -199,6 +209,23 @@ public class UIInternals implements Serializable {
 
     private ExtendedClientDetails extendedClientDetails = null;
 
+    /**
+     * The maximum number of tasks from {@link #pendingAccessQueue} run by one
+     * task in the session access queue.
+     */
+    private static final int ACCESS_BATCH_SIZE = 16;
+
+    /**
+     * Access tasks queued for this UI when per-UI access queues are enabled.
+     */
+    private transient ConcurrentLinkedQueue<FutureAccess> pendingAccessQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a task running {@link #pendingAccessQueue} has been added to the
+     * session access queue but has not yet started.
+     */
+    private transient AtomicBoolean accessTaskScheduled = new AtomicBoolean();
+
     /**
      * Creates a new instance for the given UI.
      *
@@ -485,6 +512,38 @@ public class UIInternals implements Serializable {
         return addListener(HeartbeatListener.class, listener);
     }
 
+    /**
+     * Adds a contributor that reports retained items to the footprint of this
+     * UI.
+     *
+     * @param contributor
+     *            the footprint contributor
+     * @return handler to remove the contributor
+     * @see UIFootprint
+     */
+    public Registration addFootprintContributor(
+            FootprintContributor contributor) {
+        if (footprintContributors == null) {
+            footprintContributors = new ArrayList<>(1);
+        }
+        footprintContributors.add(contributor);
+        return () -> footprintContributors.remove(contributor);
+    }
+
+    /**
+     * Gets the contributors that report retained items to the footprint of
+     * this UI.
+     *
+     * @return an unmodifiable list of footprint contributors, not
+     *         <code>null</code>
+     */
+    public List<FootprintContributor> getFootprintContributors() {
+        if (footprintContributors == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(footprintContributors);
+    }
+
     private <E> Registration addListener(Class<E> handler, E listener) {
         session.checkHasLock();
         List<E> list = (List<E>) listeners.computeIfAbsent(handler,
@@ -817,6 +876,80 @@ public class UIInternals implements Serializable {
         return session;
     }
 
+    /**
+     * Gets the queue of access tasks of the related UI. Tasks are only added to
+     * this queue if per-UI access queues are enabled, see
+     * {@link com.vaadin.flow.function.DeploymentConfiguration#isUIAccessQueueEnabled()}. It is safe to call this method and
+     * access the returned queue without holding the session lock.
+     *
+     * @return the queue of pending access tasks for the UI
+     */
+    public Queue<FutureAccess> getPendingAccessQueue() {
+        return pendingAccessQueue;
+    }
+
+    /**
+     * Adds an access task to the queue of the related UI and makes sure the
+     * queue gets purged through the access queue of the given session.
+     * <p>
+     * Only one task purging the queue of a UI is in the session access queue
+     * at a time, and it runs a limited number of tasks before giving way to
+     * the other tasks of the session. Tasks of the same UI are run in the
+     * order they were added.
+     *
+     * @param session
+     *            the session to which the UI belongs, not <code>null</code>
+     * @param access
+     *            the access task to add, not <code>null</code>
+     */
+    public void addPendingAccess(VaadinSession session, FutureAccess access) {
+        pendingAccessQueue.add(access);
+        schedulePendingAccessTasks(session);
+    }
+
+    private void schedulePendingAccessTasks(VaadinSession session) {
+        if (accessTaskScheduled.compareAndSet(false, true)) {
+            session.access(() -> runPendingAccessTasks(session));
+        }
+    }
+
+    private void runPendingAccessTasks(VaadinSession session) {
+        /*
+         * Cleared before polling so that a task added while running the queue
+         * is never left without a scheduled purge. This might schedule a purge
+         * that finds the queue empty, which is harmless.
+         */
+        accessTaskScheduled.set(false);
+
+        FutureAccess pendingAccess;
+        int count = 0;
+        while (count < ACCESS_BATCH_SIZE
+                && (pendingAccess = pendingAccessQueue.poll()) != null) {
+            count++;
+            if (!pendingAccess.isCancelled()) {
+                pendingAccess.run();
+
+                try {
+                    pendingAccess.get();
+                } catch (Exception exception) {
+                    pendingAccess.handleError(exception);
+                }
+            }
+        }
+
+        if (!pendingAccessQueue.isEmpty()) {
+            // Continue after the tasks currently in the session queue
+            schedulePendingAccessTasks(session);
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        pendingAccessQueue = new ConcurrentLinkedQueue<>();
+        accessTaskScheduled = new AtomicBoolean();
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(UIInternals.class.getName());
     }
@@ -173,6 +173,40 @@ public final class BundleParser {
         return template;
     }
 
+    /**
+     * Checks whether a module listed in the statistics json generated by
+     * webpack contains the sources of the given file.
+     *
+     * @param moduleName
+     *         the name of the module in the statistics json
+     * @param fileName
+     *         name of the file to look for
+     * @return <code>true</code> if the module contains the sources of the
+     *         file, <code>false</code> otherwise
+     */
+    public static boolean isModuleFor(String moduleName, String fileName) {
+        // ES5 modules are never used as template sources
+        if (moduleName.endsWith("es5")) {
+            return false;
+        }
+
+        // append `.js` extension if not yet as webpack does
+        fileName = fileName.replaceFirst("(\\.js|)$", ".js");
+
+        String alternativeName = fileName
+                // Replace frontend part since webpack entry-point is
+                // already in the frontend folder
+                .replaceFirst("^(./)frontend/", "$1")
+                // Replace the flow frontend protocol
+                .replaceFirst("^frontend://", ".");
+
+        // Remove query-string used by webpack modules like babel (e.g ?babel-target=es6)
+        String name = moduleName.replaceFirst("\\?.+$", "");
+
+        // Do check on the original fileName and the alternative one
+        return name.endsWith(fileName) || name.endsWith(alternativeName);
+    }
+
     // From the statistics json eecursively go through all chunks and modules to
     // find the first module whose name matches the file name
     private static String getSourceFromObject(JsonObject module,
@@ -185,31 +219,9 @@ public final class BundleParser {
             source = getSourceFromArray(module.getArray(CHUNKS), fileName);
         }
         if (source == null && validKey(module, NAME, STRING) && validKey(module,
-                SOURCE, STRING)) {
-            String name = module.getString(NAME);
-
-            // If the found module is
-            if (name.endsWith("es5")) {
-                return source;
-            }
-
-            // append `.js` extension if not yet as webpack does
-            fileName = fileName.replaceFirst("(\\.js|)$", ".js");
-
-            String alternativeName = fileName
-                    // Replace frontend part since webpack entry-point is
-                    // already in the frontend folder
-                    .replaceFirst("^(./)frontend/", "$1")
-                    // Replace the flow frontend protocol
-                    .replaceFirst("^frontend://", ".");
-
-            // Remove query-string used by webpack modules like babel (e.g ?babel-target=es6)
-            name = name.replaceFirst("\\?.+$", "");
-
-            // Do check on the original fileName and the alternative one
-            if (name.endsWith(fileName) || name.endsWith(alternativeName)) {
-                source = module.getString(SOURCE);
-            }
+                SOURCE, STRING) && isModuleFor(module.getString(NAME),
+                        fileName)) {
+            source = module.getString(SOURCE);
         }
         return source;
     }
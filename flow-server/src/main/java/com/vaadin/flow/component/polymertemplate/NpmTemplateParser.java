@@ -18,9 +18,7 @@ package com.vaadin.flow.component.polymertemplate;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import org.jsoup.UncheckedIOException;
@@ -33,12 +31,11 @@ import com.vaadin.flow.internal.AnnotationReader;
 import com.vaadin.flow.server.DependencyFilter;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.WebBrowser;
+import com.vaadin.flow.server.frontend.BundleManifest;
 import com.vaadin.flow.server.frontend.FrontendUtils;
 import com.vaadin.flow.server.startup.FakeBrowser;
 import com.vaadin.flow.shared.ui.Dependency;
 
-import elemental.json.JsonObject;
-
 /**
  * Npm template parser implementation.
  * <p>
@@ -56,10 +53,6 @@ public class NpmTemplateParser implements TemplateParser {
 
     private static final TemplateParser INSTANCE = new NpmTemplateParser();
 
-    private final HashMap<String, String> cache = new HashMap<>();
-    private final ReentrantLock lock = new ReentrantLock();
-    private JsonObject jsonStats;
-
     private NpmTemplateParser() {
         // Doesn't allow external instantiation
     }
@@ -127,27 +120,10 @@ public class NpmTemplateParser implements TemplateParser {
         return null;
     }
 
-    private String getSourcesFromStats(VaadinService service, String url) throws IOException  {
-        String content = FrontendUtils.getStatsContent(service);
-        if (content != null) {
-            updateCache(url, content);
-        }
-        return cache.get(url);
-    }
-
-    private void updateCache(String url, String fileContents) {
-        if (jsonStats == null || !jsonStats.getString("hash").equals(BundleParser.getHashFromStatistics(fileContents))) {
-            cache.clear();
-            try {
-                lock.lock();
-                jsonStats = BundleParser.parseJsonStatistics(fileContents);
-            } finally {
-                lock.unlock();
-            }
-        }
-        if (!cache.containsKey(url)) {
-            cache.put(url, BundleParser.getSourceFromStatistics(url, jsonStats));
-        }
+    private String getSourcesFromStats(VaadinService service, String url)
+            throws IOException {
+        BundleManifest manifest = BundleManifest.getInstance(service);
+        return manifest == null ? null : manifest.getModuleSource(url);
     }
 
     private Logger getLogger() {
@@ -358,6 +358,140 @@ public interface DeploymentConfiguration extends Serializable {
         return getBooleanProperty(Constants.SERVLET_PARAMETER_BROTLI, false);
     }
 
+    /**
+     * Checks whether UIDL responses should be streamed to the client while
+     * they are being created. Streaming reduces the memory needed for large
+     * responses, but if creating the response fails half way, the client
+     * receives a broken response instead of a request to refresh.
+     *
+     * @return <code>true</code> to stream UIDL responses, <code>false</code>
+     *         to build each response in memory before sending it
+     */
+    default boolean isUidlStreaming() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_UIDL_STREAMING,
+                false);
+    }
+
+    /**
+     * Checks whether the static file server should cache resolved static
+     * resources in production mode. Cached resources are not resolved again,
+     * so changes to them are not seen until the application is restarted.
+     *
+     * @return <code>true</code> to cache resolved static resources in
+     *         production mode, <code>false</code> to resolve them for every
+     *         request
+     */
+    default boolean isStaticResourceCacheEnabled() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE, true);
+    }
+
+    /**
+     * Gets the maximum total size in bytes of static resource contents that
+     * the static file server keeps in memory. Resources that do not fit are
+     * read from their origin for every request.
+     *
+     * @return the maximum size in bytes, <code>0</code> to not keep any
+     *         contents in memory
+     */
+    default int getStaticResourceCacheSize() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE,
+                Constants.STATIC_RESOURCE_CACHE_SIZE_DEFAULT,
+                Integer::parseInt);
+    }
+
+    /**
+     * Gets the maximum size in bytes of a single static resource that the
+     * static file server keeps in memory.
+     *
+     * @return the maximum size of a single resource in bytes
+     */
+    default int getStaticResourceCacheMaxFileSize() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_MAX_FILE_SIZE,
+                Constants.STATIC_RESOURCE_CACHE_MAX_FILE_SIZE_DEFAULT,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether bootstrap pages should be assembled from precompiled
+     * templates in production mode. The static parts of a bootstrap page are
+     * then generated once for each combination of UI, navigation target,
+     * theme and browser capabilities, and only the parts that differ between
+     * requests are generated for each request.
+     * <p>
+     * Pages are always generated in full if any
+     * {@link com.vaadin.flow.server.BootstrapListener} is registered or if the
+     * navigation target is a {@link com.vaadin.flow.server.PageConfigurator}.
+     *
+     * @return <code>true</code> to use precompiled bootstrap page templates in
+     *         production mode, <code>false</code> to generate the full page
+     *         for every request
+     */
+    default boolean isPrecompiledBootstrapEnabled() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_PRECOMPILED_BOOTSTRAP, false);
+    }
+
+    /**
+     * Gets the minimum interval in milliseconds between two asynchronous push
+     * messages sent to the same client. Changes pushed within the interval, or
+     * while the previous message is still being written, are collected and
+     * sent as one message when the interval has passed.
+     *
+     * @return the interval in milliseconds, <code>0</code> to send each push
+     *         immediately
+     */
+    default int getPushCoalescingWindow() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_PUSH_COALESCING_WINDOW, 0,
+                Integer::parseInt);
+    }
+
+    /**
+     * Determines whether tasks submitted with {@code UI.access} are collected
+     * in a queue of their own for each UI. The tasks of a UI are then run in
+     * order by a single task in the session access queue, a limited number at
+     * a time, so that a UI receiving many background updates does not delay
+     * the updates of the other UIs in the same session.
+     *
+     * @return <code>true</code> to queue access tasks per UI,
+     *         <code>false</code> to add them directly to the session queue
+     */
+    default boolean isUIAccessQueueEnabled() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_UI_ACCESS_QUEUE,
+                false);
+    }
+
+    /**
+     * Determines whether pending access tasks of a session, submitted for
+     * instance with {@code UI.access} from a background thread, are run on a
+     * new virtual thread instead of on the thread submitting them. Has no
+     * effect if the JVM does not support virtual threads.
+     *
+     * @return <code>true</code> to run access tasks on virtual threads,
+     *         <code>false</code> to run them on the submitting thread
+     */
+    default boolean isVirtualThreadAccessEnabled() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_VIRTUAL_THREAD_ACCESS, false);
+    }
+
+    /**
+     * Gets the size in bytes of the buffer used for copying uploaded files to
+     * their receivers. Each ongoing upload allocates a buffer of this size.
+     * The receiving stream is written to and interruption of the upload is
+     * checked once per buffer.
+     *
+     * @return the buffer size in bytes
+     */
+    default int getUploadBufferSize() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE,
+                Constants.UPLOAD_BUFFER_SIZE_DEFAULT, Integer::parseInt);
+    }
+
     default String getCompiledWebComponentsPath() {
         return getStringProperty(Constants.COMPILED_WEB_COMPONENTS_PATH,
                 "vaadin-web-components");
@@ -83,4 +83,14 @@ public class ConstantPool implements Serializable {
         return json;
     }
 
+    /**
+     * Gets the number of constants that have been registered with this
+     * constant pool.
+     *
+     * @return the number of constants
+     */
+    public int getConstantCount() {
+        return knownValues.size();
+    }
+
 }
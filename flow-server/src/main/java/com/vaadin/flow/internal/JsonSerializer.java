@@ -87,7 +87,7 @@ public final class JsonSerializer {
                 }
                 Method reader = pd.getReadMethod();
                 if (reader != null) {
-                    json.put(pd.getName(), toJson(reader.invoke(bean)));
+                    json.put(pd.getName(), toJson(MethodInvoker.get(reader).invoke(bean)));
                 }
             }
 
@@ -229,7 +229,7 @@ public final class JsonSerializer {
                             .getGenericParameterTypes()[0];
                     Object value = toObject(parameterType, genericParameterType,
                             jsonValue);
-                    method.invoke(instance, value);
+                    MethodInvoker.get(method).invoke(instance, value);
                 }
             }
 
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invokes a method through a {@link MethodHandle} adapted to a generic
+ * signature, which avoids the access checks and argument array handling of
+ * {@link Method#invoke(Object, Object...)} on every call. Methods without
+ * parameters and with a single parameter are invoked without creating an
+ * argument array.
+ * <p>
+ * The method handle is created without changing the accessibility of the
+ * method, so it can only be created for methods that are accessible to Flow or
+ * that the caller has made accessible. Otherwise, the invoker falls back to
+ * reflection through the given method instance. In both cases the invoker
+ * reports errors the same way as {@link Method#invoke(Object, Object...)}.
+ * Invokers are created once per method and cached, unless they depend on the
+ * accessibility of the given method instance.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public final class MethodInvoker {
+
+    private static final ReflectionCache<Object, Map<Method, MethodInvoker>> INVOKERS = new ReflectionCache<>(
+            type -> new ConcurrentHashMap<>());
+
+    private static final MethodType GETTER_TYPE = MethodType
+            .genericMethodType(1);
+    private static final MethodType SETTER_TYPE = MethodType
+            .genericMethodType(2);
+    private static final MethodType SPREAD_TYPE = MethodType
+            .methodType(Object.class, Object.class, Object[].class);
+
+    private static final String WIDENING_ORDER = "byte short char int long float double";
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+    static {
+        for (Class<?> type : new Class<?>[] { boolean.class, byte.class,
+                short.class, char.class, int.class, long.class, float.class,
+                double.class }) {
+            PRIMITIVES.put(ReflectTools.convertPrimitiveType(type), type);
+        }
+    }
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    private final MethodHandle handle;
+
+    private MethodInvoker(Method method) {
+        this.method = method;
+        parameterTypes = method.getParameterTypes();
+        isStatic = Modifier.isStatic(method.getModifiers());
+        handle = createHandle(method, parameterTypes.length, isStatic);
+    }
+
+    /**
+     * Gets the invoker for the given method.
+     *
+     * @param method
+     *            the method to invoke, not <code>null</code>
+     * @return the invoker for the method, not <code>null</code>
+     */
+    public static MethodInvoker get(Method method) {
+        Map<Method, MethodInvoker> invokers = INVOKERS
+                .get(method.getDeclaringClass());
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            // Access granted to one method instance is not shared
+            boolean shareable = !method.isAccessible();
+            invoker = new MethodInvoker(method);
+            if (shareable && invoker.handle != null) {
+                invokers.putIfAbsent(method, invoker);
+            }
+        }
+        return invoker;
+    }
+
+    /**
+     * Gets the method invoked by this invoker.
+     *
+     * @return the method, not <code>null</code>
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invokes the method on the given target with the given arguments.
+     *
+     * @param target
+     *            the object to invoke the method on, ignored for static
+     *            methods
+     * @param args
+     *            the arguments for the method
+     * @return the value returned by the method, or <code>null</code> for
+     *         <code>void</code> methods
+     * @throws IllegalAccessException
+     *             if the method cannot be accessed
+     * @throws IllegalArgumentException
+     *             if the target is not an instance of the class declaring the
+     *             method, or if the arguments do not match the parameters of
+     *             the method
+     * @throws InvocationTargetException
+     *             if the method throws an exception
+     * @see Method#invoke(Object, Object...)
+     */
+    public Object invoke(Object target, Object... args)
+            throws IllegalAccessException, InvocationTargetException {
+        if (handle == null) {
+            return method.invoke(target, args);
+        }
+
+        int count = args == null ? 0 : args.length;
+        if (count != parameterTypes.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        if (!isStatic) {
+            if (target == null) {
+                throw new NullPointerException();
+            }
+            if (!method.getDeclaringClass().isInstance(target)) {
+                throw new IllegalArgumentException(
+                        "object is not an instance of declaring class");
+            }
+        }
+
+        try {
+            switch (count) {
+            case 0:
+                return handle.invokeExact(target);
+            case 1:
+                return handle.invokeExact(target, args[0]);
+            default:
+                return handle.invokeExact(target, args);
+            }
+        } catch (ClassCastException | NullPointerException e) {
+            // Thrown either by the argument conversion or by the method
+            if (!isAssignable(args)) {
+                throw new IllegalArgumentException("argument type mismatch",
+                        e);
+            }
+            throw new InvocationTargetException(e);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static MethodHandle createHandle(Method method, int count,
+            boolean isStatic) {
+        MethodHandle handle;
+        try {
+            // Access is checked here unless the method has been made
+            // accessible by its owner
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        if (count == 0) {
+            return handle.asType(GETTER_TYPE);
+        } else if (count == 1) {
+            return handle.asType(SETTER_TYPE);
+        }
+        return handle.asSpreader(Object[].class, count).asType(SPREAD_TYPE);
+    }
+
+    private boolean isAssignable(Object[] args) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            if (type.isPrimitive()) {
+                if (!isWidenable(args[i], type)) {
+                    return false;
+                }
+            } else if (args[i] != null && !type.isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The unboxing and widening conversions allowed by Method.invoke
+    private static boolean isWidenable(Object arg, Class<?> type) {
+        if (arg == null) {
+            return false;
+        }
+        Class<?> source = PRIMITIVES.get(arg.getClass());
+        if (source == type) {
+            return true;
+        }
+        if (source == null || source == boolean.class
+                || type == boolean.class || type == char.class) {
+            return false;
+        }
+        int from = WIDENING_ORDER.indexOf(source.getName());
+        int to = WIDENING_ORDER.indexOf(type.getName());
+        return to > from && !(source == char.class && type == short.class);
+    }
+}
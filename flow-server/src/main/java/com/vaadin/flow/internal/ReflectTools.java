@@ -113,7 +113,7 @@ public class ReflectTools implements Serializable {
             pd = new PropertyDescriptor(field.getName(), object.getClass());
             Method getter = pd.getReadMethod();
             if (getter != null) {
-                return getter.invoke(object, (Object[]) null);
+                return MethodInvoker.get(getter).invoke(object);
             }
         } catch (IntrospectionException e1) {
             // Ignore this and try to get directly using the field
@@ -159,7 +159,7 @@ public class ReflectTools implements Serializable {
             if (propertyType.isAssignableFrom(pd.getPropertyType())) {
                 Method getter = pd.getReadMethod();
                 if (getter != null) {
-                    return getter.invoke(object, (Object[]) null);
+                    return MethodInvoker.get(getter).invoke(object);
                 }
             }
         } catch (IntrospectionException e1) {
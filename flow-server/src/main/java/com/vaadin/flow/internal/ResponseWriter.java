@@ -33,6 +33,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.StaticResourceCache.CachedResource;
+import com.vaadin.flow.internal.StaticResourceCache.Variant;
 
 /**
  * The class that handles writing the response data into the response.
@@ -174,6 +176,57 @@ public class ResponseWriter implements Serializable {
         }
     }
 
+    /**
+     * Writes the contents and content type (if available) of the given cached
+     * resource to the response. A precompressed variant of the resource is
+     * used if the browser accepts it and one was found when the resource was
+     * resolved.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resource
+     *            the resolved resource
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if the servlet container threw an exception while getting
+     *             the output stream
+     */
+    public void writeResponseContents(String filenameWithPath,
+            CachedResource resource, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        writeContentType(filenameWithPath, request, response);
+
+        Variant variant = null;
+        if (brotliEnabled && resource.getBrotli() != null
+                && acceptsBrotliResource(request)) {
+            variant = resource.getBrotli();
+            response.setHeader("Content-Encoding", "br");
+        } else if (resource.getGzip() != null
+                && acceptsGzippedResource(request)) {
+            variant = resource.getGzip();
+            response.setHeader("Content-Encoding", "gzip");
+        }
+
+        if (variant == null) {
+            variant = resource.getPlain();
+        } else {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        if (variant.getLength() >= 0L) {
+            response.setContentLengthLong(variant.getLength());
+        }
+
+        try {
+            variant.writeTo(response.getOutputStream(), bufferSize);
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
     private void writeStream(ServletOutputStream outputStream,
             InputStream inputStream) throws IOException {
         final byte[] buffer = new byte[bufferSize];
@@ -138,7 +138,17 @@ public class StateNode implements Serializable {
      */
     private Serializable features;
 
-    private Map<Class<? extends NodeFeature>, Serializable> changes;
+    /**
+     * Change trackers for this node, indexed in the same way as the features
+     * array. <code>null</code> when there are no pending changes.
+     */
+    private Serializable[] changes;
+
+    /**
+     * The tree in which this node is currently marked as dirty, or
+     * <code>null</code> if it isn't. Maintained by {@link StateTree}.
+     */
+    StateTree dirtyOwner;
 
     private List<Command> attachListeners;
 
@@ -593,24 +603,51 @@ public class StateNode implements Serializable {
                 doCollectChanges(collector, getDisalowFeatures());
             }
         } else {
-            doCollectChanges(collector, getInitializedFeatures());
+            doCollectChanges(collector);
         }
     }
 
     private void doCollectChanges(Consumer<NodeChange> collector,
             Stream<NodeFeature> features) {
-        features.filter(this::hasChangeTracker).forEach(feature -> {
-            feature.collectChanges(collector);
-            changes.remove(feature.getClass());
-        });
+        features.forEach(feature -> collectFeatureChanges(feature, collector));
         isInitialChanges = false;
-        if (changes != null && changes.isEmpty()) {
-            changes = null;
+        clearChangesIfEmpty();
+    }
+
+    private void doCollectChanges(Consumer<NodeChange> collector) {
+        if (changes != null) {
+            if (features instanceof NodeFeature) {
+                collectFeatureChanges((NodeFeature) features, collector);
+            } else if (features instanceof NodeFeature[]) {
+                for (NodeFeature feature : (NodeFeature[]) features) {
+                    if (feature != null) {
+                        collectFeatureChanges(feature, collector);
+                    }
+                }
+            }
         }
+        isInitialChanges = false;
+        clearChangesIfEmpty();
     }
 
-    private boolean hasChangeTracker(NodeFeature nodeFeature) {
-        return changes != null && changes.containsKey(nodeFeature.getClass());
+    private void collectFeatureChanges(NodeFeature feature,
+            Consumer<NodeChange> collector) {
+        int index = getFeatureIndex(feature.getClass());
+        if (changes != null && changes[index] != null) {
+            feature.collectChanges(collector);
+            changes[index] = null;
+        }
+    }
+
+    private void clearChangesIfEmpty() {
+        if (changes != null) {
+            for (Serializable tracker : changes) {
+                if (tracker != null) {
+                    return;
+                }
+            }
+            changes = null;
+        }
     }
 
     /**
@@ -808,12 +845,17 @@ public class StateNode implements Serializable {
     @SuppressWarnings("unchecked")
     public <T extends Serializable> T getChangeTracker(NodeFeature feature,
             Supplier<T> factory) {
+        int index = getFeatureIndex(feature.getClass());
         if (changes == null) {
-            changes = new HashMap<>();
+            changes = new Serializable[featureSet.mappings.size()];
         }
 
-        return (T) changes.computeIfAbsent(feature.getClass(),
-                k -> factory.get());
+        Serializable tracker = changes[index];
+        if (tracker == null) {
+            tracker = factory.get();
+            changes[index] = tracker;
+        }
+        return (T) tracker;
     }
 
     /**
@@ -875,7 +917,20 @@ public class StateNode implements Serializable {
      * @see NodeFeature#allowsChanges()
      */
     public void updateActiveState() {
-        setInactive(getDisalowFeatures().count() != 0);
+        setInactive(hasDisallowFeatures());
+    }
+
+    private boolean hasDisallowFeatures() {
+        if (features instanceof NodeFeature) {
+            return !((NodeFeature) features).allowsChanges();
+        } else if (features instanceof NodeFeature[]) {
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null && !feature.allowsChanges()) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -964,6 +1019,36 @@ public class StateNode implements Serializable {
         return beforeClientResponseEntries != null;
     }
 
+    /**
+     * Gets the number of pending execution entries for this node.
+     *
+     * @return the number of pending execution entries
+     */
+    int getBeforeClientResponseEntryCount() {
+        return beforeClientResponseEntries == null ? 0
+                : beforeClientResponseEntries.size();
+    }
+
+    /**
+     * Gets the number of features that have been initialized for this node.
+     *
+     * @return the number of initialized features
+     */
+    int getInitializedFeatureCount() {
+        if (features instanceof NodeFeature) {
+            return 1;
+        } else if (features instanceof NodeFeature[]) {
+            int count = 0;
+            for (NodeFeature feature : (NodeFeature[]) features) {
+                if (feature != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        return 0;
+    }
+
     /**
      * Gets the current list of pending execution entries for this node and
      * clears the current list.
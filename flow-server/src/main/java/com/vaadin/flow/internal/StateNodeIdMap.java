@@ -0,0 +1,226 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * A map from node ids to state nodes, used by {@link StateTree} to look up
+ * nodes referenced by the client.
+ * <p>
+ * Ids are stored as primitive <code>int</code>s in an open addressing table
+ * with linear probing, so that neither registering nor looking up a node
+ * boxes its id or allocates a map entry. The table shrinks again when nodes
+ * are removed so that the footprint follows the number of registered nodes.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public final class StateNodeIdMap implements Serializable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Node ids, or <code>0</code> for an empty slot. Valid node ids are always
+     * positive.
+     */
+    private int[] ids = new int[MIN_CAPACITY];
+
+    private StateNode[] nodes = new StateNode[MIN_CAPACITY];
+
+    private int size;
+
+    /**
+     * Gets the node with the given id.
+     *
+     * @param id
+     *            the id to look for
+     * @return the node with the given id, or <code>null</code> if there is no
+     *         such node
+     */
+    public StateNode get(int id) {
+        int slot = findSlot(id);
+        return slot < 0 ? null : nodes[slot];
+    }
+
+    /**
+     * Checks whether there is a node with the given id.
+     *
+     * @param id
+     *            the id to look for
+     * @return <code>true</code> if there is a node with the given id,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(int id) {
+        return findSlot(id) >= 0;
+    }
+
+    /**
+     * Associates a node with the given id, replacing any previous node with
+     * the same id.
+     *
+     * @param id
+     *            the id of the node, must be positive
+     * @param node
+     *            the node to store, not <code>null</code>
+     * @return the node previously associated with the id, or
+     *         <code>null</code> if there was no such node
+     */
+    public StateNode put(int id, StateNode node) {
+        if (id <= 0) {
+            throw new IllegalArgumentException(
+                    "Node id must be positive, was " + id);
+        }
+        assert node != null;
+
+        int slot = findSlot(id);
+        if (slot >= 0) {
+            StateNode previous = nodes[slot];
+            nodes[slot] = node;
+            return previous;
+        }
+
+        // Keep the load factor at most 1/2 to keep probe sequences short
+        if ((size + 1) * 2 > ids.length) {
+            resize(ids.length * 2);
+        }
+        insert(id, node);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the node with the given id.
+     *
+     * @param id
+     *            the id of the node to remove
+     * @return the removed node, or <code>null</code> if there was no node
+     *         with the given id
+     */
+    public StateNode remove(int id) {
+        int slot = findSlot(id);
+        if (slot < 0) {
+            return null;
+        }
+        StateNode removed = nodes[slot];
+        deleteSlot(slot);
+        size--;
+
+        if (ids.length > MIN_CAPACITY && size * 8 < ids.length) {
+            resize(ids.length / 2);
+        }
+        return removed;
+    }
+
+    /**
+     * Gets the number of nodes in this map.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Runs the given action for each node in this map, in no particular order.
+     *
+     * @param action
+     *            the action to run, not <code>null</code>
+     */
+    public void forEach(Consumer<StateNode> action) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                action.accept(nodes[i]);
+            }
+        }
+    }
+
+    private int findSlot(int id) {
+        if (id <= 0) {
+            return -1;
+        }
+        int mask = ids.length - 1;
+        int slot = indexFor(id, mask);
+        while (true) {
+            int slotId = ids[slot];
+            if (slotId == id) {
+                return slot;
+            } else if (slotId == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insert(int id, StateNode node) {
+        int mask = ids.length - 1;
+        int slot = indexFor(id, mask);
+        while (ids[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        nodes[slot] = node;
+    }
+
+    /**
+     * Empties the given slot and moves back any later entries in the same
+     * probe sequence, so that lookups never need tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = ids.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (ids[next] != 0) {
+            int home = indexFor(ids[next], mask);
+            // Move the entry if the hole is between its home slot and itself
+            boolean reachable = hole <= next ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (reachable) {
+                ids[hole] = ids[next];
+                nodes[hole] = nodes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        ids[hole] = 0;
+        nodes[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldIds = ids;
+        StateNode[] oldNodes = nodes;
+        ids = new int[capacity];
+        nodes = new StateNode[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                insert(oldIds[i], oldNodes[i]);
+            }
+        }
+    }
+
+    private static int indexFor(int id, int mask) {
+        /*
+         * Ids are handed out sequentially, but the live ids of a long-lived
+         * tree form several runs that could overlap modulo the table size.
+         * Spread them to avoid long probe sequences in that case.
+         */
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -17,13 +17,12 @@
 package com.vaadin.flow.internal;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -121,9 +120,18 @@ public class StateTree implements NodeOwner {
         void remove();
     }
 
-    private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
+    /**
+     * Nodes marked as dirty, in the order they were marked. A node is in this
+     * list only if {@link StateNode#dirtyOwner} refers to this tree, which
+     * makes marking a node that is already dirty a field check instead of a
+     * hash lookup. The list is swapped with {@link #collectedNodes} and
+     * cleared instead of reallocated for each round trip.
+     */
+    private ArrayList<StateNode> dirtyNodes = new ArrayList<>();
+
+    private ArrayList<StateNode> collectedNodes = new ArrayList<>();
 
-    private final Map<Integer, StateNode> idToNode = new HashMap<>();
+    private final StateNodeIdMap idToNode = new StateNodeIdMap();
 
     private int nextId = 1;
 
@@ -192,7 +200,7 @@ public class StateTree implements NodeOwner {
     public void unregister(StateNode node) {
         assert node.getOwner() == this;
 
-        Integer id = node.getId();
+        int id = node.getId();
 
         StateNode removedNode = idToNode.remove(id);
 
@@ -228,6 +236,44 @@ public class StateTree implements NodeOwner {
         return idToNode.get(id);
     }
 
+    /**
+     * Gets the number of nodes registered with this tree.
+     *
+     * @return the number of registered nodes
+     */
+    public int getNodeCount() {
+        return idToNode.size();
+    }
+
+    /**
+     * Gets the total number of initialized features of all nodes registered
+     * with this tree. This method visits all nodes and is intended for
+     * diagnostics only.
+     *
+     * @return the number of initialized features
+     */
+    public int getFeatureCount() {
+        int[] count = new int[1];
+        idToNode.forEach(
+                node -> count[0] += node.getInitializedFeatureCount());
+        return count[0];
+    }
+
+    /**
+     * Gets the number of tasks registered with
+     * {@link #beforeClientResponse(StateNode, SerializableConsumer)} for
+     * attached nodes that have not yet been executed.
+     *
+     * @return the number of pending tasks
+     */
+    public int getBeforeClientResponseEntryCount() {
+        int count = 0;
+        for (StateNode node : pendingExecutionNodes) {
+            count += node.getBeforeClientResponseEntryCount();
+        }
+        return count;
+    }
+
     /**
      * Collects all changes made to this tree since the last time
      * {@link #collectChanges(Consumer)} has been called.
@@ -236,20 +282,26 @@ public class StateTree implements NodeOwner {
      *            a consumer accepting node changes
      */
     public void collectChanges(Consumer<NodeChange> collector) {
-        Set<StateNode> allDirtyNodes = new LinkedHashSet<>();
-        boolean evaluateNewDirtyNodes = true;
-
-        // The updateActiveState method can create new dirty nodes, so they need
-        // to be collected as well
-        while (evaluateNewDirtyNodes) {
-            Set<StateNode> dirtyNodesSet = collectDirtyNodes();
-            dirtyNodesSet.forEach(StateNode::updateActiveState);
-            evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
+        // The updateActiveState method can create new dirty nodes, which are
+        // appended to the list and thus evaluated by this same loop
+        for (int i = 0; i < dirtyNodes.size(); i++) {
+            StateNode node = dirtyNodes.get(i);
+            if (node.dirtyOwner == this) {
+                node.updateActiveState();
+            }
         }
 
+        ArrayList<StateNode> nodes = swapDirtyNodes();
+
         // TODO fire preCollect events
 
-        allDirtyNodes.forEach(node -> node.collectChanges(collector));
+        for (int i = 0; i < nodes.size(); i++) {
+            StateNode node = nodes.get(i);
+            if (node != null) {
+                node.collectChanges(collector);
+            }
+        }
+        nodes.clear();
     }
 
     @Override
@@ -257,7 +309,10 @@ public class StateTree implements NodeOwner {
         assert node.getOwner() == this;
         checkHasLock();
 
-        dirtyNodes.add(node);
+        if (node.dirtyOwner != this) {
+            node.dirtyOwner = this;
+            dirtyNodes.add(node);
+        }
     }
 
     /**
@@ -267,9 +322,42 @@ public class StateTree implements NodeOwner {
      * @return a set of dirty nodes, in the order they were marked dirty
      */
     public Set<StateNode> collectDirtyNodes() {
-        Set<StateNode> collectedNodes = dirtyNodes;
-        dirtyNodes = new LinkedHashSet<>();
-        return collectedNodes;
+        ArrayList<StateNode> nodes = swapDirtyNodes();
+        Set<StateNode> collectedNodeSet = new LinkedHashSet<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            StateNode node = nodes.get(i);
+            if (node != null) {
+                collectedNodeSet.add(node);
+            }
+        }
+        nodes.clear();
+        return collectedNodeSet;
+    }
+
+    /**
+     * Starts a new round of dirty tracking by swapping the list of dirty nodes
+     * with the spare list. Nodes in the returned list are no longer marked as
+     * dirty, so they can be marked again while being processed. Entries that
+     * should not be processed, because the node has since been marked in
+     * another tree or appears twice, are replaced with <code>null</code>.
+     *
+     * @return the nodes marked as dirty since the previous round, to be
+     *         cleared by the caller once processed
+     */
+    private ArrayList<StateNode> swapDirtyNodes() {
+        ArrayList<StateNode> nodes = dirtyNodes;
+        dirtyNodes = collectedNodes;
+        collectedNodes = nodes;
+
+        for (int i = 0; i < nodes.size(); i++) {
+            StateNode node = nodes.get(i);
+            if (node.dirtyOwner == this) {
+                node.dirtyOwner = null;
+            } else {
+                nodes.set(i, null);
+            }
+        }
+        return nodes;
     }
 
     /**
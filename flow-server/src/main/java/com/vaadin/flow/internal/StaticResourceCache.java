@@ -0,0 +1,334 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import javax.servlet.ServletContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches static resources resolved by the static file server, so that the
+ * location, length, modification time and precompressed variants of a
+ * resource are only looked up once.
+ * <p>
+ * The contents of small resources are kept in memory within a configurable
+ * total size. Larger resources backed by a file are transferred from a
+ * {@link FileChannel}, other resources are streamed from their URL.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public class StaticResourceCache implements Serializable {
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    /**
+     * A resolved static resource together with its precompressed variants.
+     */
+    public static final class CachedResource implements Serializable {
+        private final Variant plain;
+        private final Variant brotli;
+        private final Variant gzip;
+        private final String eTag;
+
+        private CachedResource(Variant plain, Variant brotli, Variant gzip) {
+            this.plain = plain;
+            this.brotli = brotli;
+            this.gzip = gzip;
+            eTag = plain.lastModified > 0
+                    ? "W/\"" + plain.length + "-" + plain.lastModified + "\""
+                    : null;
+        }
+
+        /**
+         * Gets the modification timestamp of the resource, without
+         * milliseconds.
+         *
+         * @return the modification timestamp or -1 if it is not known
+         */
+        public long getLastModified() {
+            return plain.lastModified;
+        }
+
+        /**
+         * Gets the entity tag of the resource, derived from its length and
+         * modification timestamp.
+         *
+         * @return the entity tag, or <code>null</code> if the modification
+         *         timestamp is not known
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        Variant getPlain() {
+            return plain;
+        }
+
+        Variant getBrotli() {
+            return brotli;
+        }
+
+        Variant getGzip() {
+            return gzip;
+        }
+    }
+
+    /**
+     * The location, metadata and optionally the contents of one resource file.
+     */
+    static final class Variant implements Serializable {
+        private final URL url;
+        private final File file;
+        private final long length;
+        private final long lastModified;
+        private byte[] contents;
+
+        private Variant(URL url, File file, long length, long lastModified) {
+            this.url = url;
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        long getLength() {
+            return length;
+        }
+
+        boolean isInMemory() {
+            return contents != null;
+        }
+
+        boolean isFileBacked() {
+            return file != null;
+        }
+
+        void writeTo(OutputStream outputStream, int bufferSize)
+                throws IOException {
+            if (contents != null) {
+                outputStream.write(contents);
+            } else if (file != null) {
+                try (FileChannel channel = FileChannel.open(file.toPath(),
+                        StandardOpenOption.READ)) {
+                    WritableByteChannel target = Channels
+                            .newChannel(outputStream);
+                    long size = channel.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += channel.transferTo(position,
+                                size - position, target);
+                    }
+                }
+            } else {
+                try (InputStream inputStream = url.openStream()) {
+                    copy(inputStream, outputStream, bufferSize);
+                }
+            }
+        }
+    }
+
+    private final ConcurrentMap<String, CachedResource> resources = new ConcurrentHashMap<>();
+
+    private final long maxSize;
+    private final long maxFileSize;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *            the maximum total size in bytes of resource contents to keep
+     *            in memory
+     * @param maxFileSize
+     *            the maximum size in bytes of a single resource file to keep
+     *            in memory
+     */
+    public StaticResourceCache(long maxSize, long maxFileSize) {
+        this.maxSize = maxSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Gets a previously resolved resource.
+     *
+     * @param filenameWithPath
+     *            the name of the requested file
+     * @return the resolved resource, or <code>null</code> if the resource has
+     *         not been resolved
+     */
+    public CachedResource get(String filenameWithPath) {
+        return resources.get(filenameWithPath);
+    }
+
+    /**
+     * Resolves the metadata and precompressed variants of a resource and
+     * caches them. If the resource has already been resolved, the existing
+     * entry is returned.
+     *
+     * @param filenameWithPath
+     *            the name of the requested file
+     * @param resourceUrl
+     *            the URL to the file, reported by the servlet container
+     * @param servletContext
+     *            the servlet context to look for precompressed variants from
+     * @param brotliEnabled
+     *            whether to look for a Brotli variant
+     * @return the resolved resource, not <code>null</code>
+     * @throws IOException
+     *             if the resource cannot be read
+     */
+    public CachedResource resolve(String filenameWithPath, URL resourceUrl,
+            ServletContext servletContext, boolean brotliEnabled)
+            throws IOException {
+        CachedResource resource = resources.get(filenameWithPath);
+        if (resource != null) {
+            return resource;
+        }
+
+        Variant plain = createVariant(resourceUrl);
+        Variant brotli = brotliEnabled
+                ? findVariant(servletContext, filenameWithPath + ".br")
+                : null;
+        Variant gzip = findVariant(servletContext, filenameWithPath + ".gz");
+        resource = new CachedResource(plain, brotli, gzip);
+
+        CachedResource previous = resources.putIfAbsent(filenameWithPath,
+                resource);
+        if (previous != null) {
+            // Resolved concurrently by another request
+            release(resource);
+            return previous;
+        }
+        return resource;
+    }
+
+    /**
+     * Gets the total size of resource contents currently kept in memory.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    private Variant findVariant(ServletContext servletContext,
+            String filenameWithPath) {
+        try {
+            URL url = servletContext.getResource(filenameWithPath);
+            if (url != null) {
+                return createVariant(url);
+            }
+        } catch (Exception e) {
+            getLogger().debug("Unexpected exception looking for resource {}",
+                    filenameWithPath, e);
+        }
+        return null;
+    }
+
+    private Variant createVariant(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        try (InputStream inputStream = connection.getInputStream()) {
+            long length = connection.getContentLengthLong();
+            long lastModified = -1L;
+            try {
+                lastModified = connection.getLastModified();
+                // Remove milliseconds to avoid comparison problems
+                // (milliseconds are not returned by the browser in the
+                // "If-Modified-Since" header).
+                lastModified = lastModified - lastModified % 1000;
+            } catch (Exception e) {
+                getLogger().trace(
+                        "Failed to find out last modified timestamp. Continuing without it.",
+                        e);
+            }
+
+            Variant variant = new Variant(url, getFile(url), length,
+                    lastModified);
+            if (length >= 0 && length <= maxFileSize && reserve(length)) {
+                ByteArrayOutputStream contents = new ByteArrayOutputStream(
+                        (int) length);
+                copy(inputStream, contents,
+                        (int) Math.min(Math.max(length, 1), BUFFER_SIZE));
+                variant.contents = contents.toByteArray();
+                // Account for the actual size if the reported length was off
+                size.addAndGet(variant.contents.length - length);
+            }
+            return variant;
+        }
+    }
+
+    private boolean reserve(long length) {
+        if (size.addAndGet(length) <= maxSize) {
+            return true;
+        }
+        size.addAndGet(-length);
+        return false;
+    }
+
+    private void release(CachedResource resource) {
+        for (Variant variant : new Variant[] { resource.plain,
+                resource.brotli, resource.gzip }) {
+            if (variant != null && variant.contents != null) {
+                size.addAndGet(-variant.contents.length);
+            }
+        }
+    }
+
+    private static File getFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            File file = new File(url.toURI());
+            return file.isFile() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void copy(InputStream inputStream,
+            OutputStream outputStream, int bufferSize) throws IOException {
+        final byte[] buffer = new byte[bufferSize];
+        int bytes;
+        while ((bytes = inputStream.read(buffer)) >= 0) {
+            outputStream.write(buffer, 0, bytes);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(StaticResourceCache.class.getName());
+    }
+}
@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -67,7 +68,7 @@ import com.vaadin.flow.server.BootstrapUtils.ThemeSettings;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.PushConnectionFactory;
 import com.vaadin.flow.server.communication.UidlWriter;
-import com.vaadin.flow.server.frontend.FrontendUtils;
+import com.vaadin.flow.server.frontend.BundleManifest;
 import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.VaadinUriResolver;
 import com.vaadin.flow.shared.communication.PushMode;
@@ -124,10 +125,18 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
     private static final String MESSAGE = "message";
     private static final String URL = "url";
 
+    /**
+     * Upper limit for the number of precompiled bootstrap page templates kept
+     * by a handler, to bound the memory used for rarely requested variants.
+     */
+    private static final int MAX_PAGE_TEMPLATES = 256;
+
     static Supplier<String> clientEngineFile = () -> LazyClientEngineInit.CLIENT_ENGINE_FILE;
 
     private final PageBuilder pageBuilder;
 
+    private final Map<String, BootstrapPageTemplate> pageTemplates = new ConcurrentHashMap<>();
+
     /**
      * Creates an instance of the handler with default {@link PageBuilder}.
      */
@@ -459,12 +468,29 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         ServletHelper.setResponseNoCacheHeaders(response::setHeader,
                 response::setDateHeader);
 
-        Document document = pageBuilder.getBootstrapPage(context);
-        writeBootstrapPage(response, document.outerHtml());
+        String html;
+        if (pageBuilder instanceof BootstrapPageBuilder
+                && isPrecompiledBootstrap(context)) {
+            html = ((BootstrapPageBuilder) pageBuilder)
+                    .getPrecompiledBootstrapPage(context, pageTemplates);
+        } else {
+            html = pageBuilder.getBootstrapPage(context).outerHtml();
+        }
+        writeBootstrapPage(response, html);
 
         return true;
     }
 
+    private static boolean isPrecompiledBootstrap(BootstrapContext context) {
+        DeploymentConfiguration config = context.getSession()
+                .getConfiguration();
+        return config.isProductionMode()
+                && config.isPrecompiledBootstrapEnabled()
+                && !context.getSession().getService().hasBootstrapListeners()
+                && context.getUI().getChildren().noneMatch(
+                        component -> component instanceof PageConfigurator);
+    }
+
     private void writeBootstrapPage(VaadinResponse response, String html)
             throws IOException {
         response.setContentType(
@@ -506,6 +532,106 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
          */
         @Override
         public Document getBootstrapPage(BootstrapContext context) {
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+
+            Document document = createBootstrapPage(context,
+                    dependenciesToProcessOnServer,
+                    resolvePageTitle(context).filter(title -> !title.isEmpty()),
+                    getBootstrapScript(initialUIDL, context));
+
+            BootstrapPageResponse response = new BootstrapPageResponse(
+                    context.getRequest(), context.getSession(),
+                    context.getResponse(), document, context.getUI(),
+                    context.getUriResolver());
+            context.getSession().getService().modifyBootstrapPage(response);
+
+            return document;
+        }
+
+        /**
+         * Returns the serialized bootstrap page for the given context,
+         * assembled from a precompiled template. A template is created from
+         * the first page generated for each combination of UI, navigation
+         * target, theme, browser capabilities, request path depth and
+         * dependencies from the initial UIDL. Only the page title and the
+         * bootstrap script are generated for each request.
+         * <p>
+         * Bootstrap listeners are not notified, so this may only be used when
+         * there are no listeners.
+         *
+         * @param context
+         *         Context to generate bootstrap page for.
+         * @param templates
+         *         the templates created so far, keyed by the parts of the
+         *         context they depend on
+         * @return the serialized bootstrap page
+         */
+        String getPrecompiledBootstrapPage(BootstrapContext context,
+                Map<String, BootstrapPageTemplate> templates) {
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+            Optional<String> title = resolvePageTitle(context)
+                    .filter(value -> !value.isEmpty());
+            String script = getBootstrapScriptContents(initialUIDL, context);
+
+            String key = getTemplateKey(context,
+                    dependenciesToProcessOnServer, title.isPresent());
+            BootstrapPageTemplate template = templates.get(key);
+            if (template == null) {
+                Document document = createBootstrapPage(context,
+                        dependenciesToProcessOnServer,
+                        title.map(
+                                value -> BootstrapPageTemplate.TITLE_PLACEHOLDER),
+                        createInlineJavaScriptElement(
+                                BootstrapPageTemplate.SCRIPT_PLACEHOLDER));
+                template = BootstrapPageTemplate.create(document.outerHtml(),
+                        title.isPresent());
+                if (template == null) {
+                    // Placeholder text also used elsewhere in the page
+                    return createBootstrapPage(context,
+                            dependenciesToProcessOnServer, title,
+                            createInlineJavaScriptElement(script)).outerHtml();
+                }
+                if (templates.size() < MAX_PAGE_TEMPLATES) {
+                    templates.put(key, template);
+                }
+            }
+            return template.merge(title.orElse(null), script);
+        }
+
+        private String getTemplateKey(BootstrapContext context,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                boolean hasTitle) {
+            UI ui = context.getUI();
+            WebBrowser browser = context.getSession().getBrowser();
+            StringBuilder key = new StringBuilder(ui.getClass().getName());
+            key.append('|');
+            if (context.pageConfigurationHolder != null) {
+                key.append(context.pageConfigurationHolder.getName());
+            }
+            key.append('|');
+            context.getTheme().ifPresent(theme -> key
+                    .append(theme.getTheme().getName()).append(' ')
+                    .append(theme.getVariant()));
+            key.append('|').append(ui.getLocale().getLanguage()).append('|')
+                    .append(getServiceUrl(context)).append('|')
+                    .append(ui.getInternals().getContextRootRelativePath())
+                    .append('|').append(context.getPushMode().isEnabled())
+                    .append('|').append(browser.isEs6Supported()).append('|')
+                    .append(browser.isEs5AdapterNeeded()).append('|')
+                    .append(hasTitle);
+            dependenciesToProcessOnServer.forEach(
+                    (loadMode, dependencies) -> key.append('|')
+                            .append(loadMode).append(dependencies.toJson()));
+            return key.toString();
+        }
+
+        private Document createBootstrapPage(BootstrapContext context,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                Optional<String> title, Element bootstrapScript) {
             DeploymentConfiguration config = context.getSession()
                     .getConfiguration();
 
@@ -519,7 +645,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             html.appendElement("body");
 
             List<Element> dependenciesToInlineInBody = setupDocumentHead(head,
-                    context);
+                    context, dependenciesToProcessOnServer, title,
+                    bootstrapScript);
             dependenciesToInlineInBody.forEach(
                     dependency -> document.body().appendChild(dependency));
             setupDocumentBody(document);
@@ -549,12 +676,6 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 checkWebpackStatus(document);
             }
 
-            BootstrapPageResponse response = new BootstrapPageResponse(
-                    context.getRequest(), context.getSession(),
-                    context.getResponse(), document, context.getUI(),
-                    context.getUriResolver());
-            context.getSession().getService().modifyBootstrapPage(response);
-
             return document;
         }
 
@@ -708,14 +829,13 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private List<Element> setupDocumentHead(Element head,
-                BootstrapContext context) {
-            setupMetaAndTitle(head, context);
+                BootstrapContext context,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                Optional<String> title, Element bootstrapScript) {
+            setupMetaAndTitle(head, context, title);
             setupCss(head, context);
 
-            JsonObject initialUIDL = getInitialUidl(context.getUI());
-            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
-                    initialUIDL);
-            setupFrameworkLibraries(head, initialUIDL, context);
+            setupFrameworkLibraries(head, bootstrapScript, context);
             return applyUserDependencies(head, context,
                     dependenciesToProcessOnServer);
         }
@@ -819,7 +939,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private void setupFrameworkLibraries(Element head,
-                JsonObject initialUIDL, BootstrapContext context) {
+                Element bootstrapScript, BootstrapContext context) {
 
             VaadinService service = context.getSession().getService();
             DeploymentConfiguration conf = service.getDeploymentConfiguration();
@@ -843,20 +963,23 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 head.appendChild(getPushScript(context));
             }
 
-            head.appendChild(getBootstrapScript(initialUIDL, context));
+            head.appendChild(bootstrapScript);
             head.appendChild(
                     createJavaScriptElement(getClientEngineUrl(context)));
         }
 
         private void appendNpmBundle(Element head, VaadinService service)
                 throws IOException {
-            String content = FrontendUtils.getStatsContent(service);
-            JsonObject chunks = Json.parse(content)
-                    .getObject("assetsByChunkName");
+            BundleManifest manifest = BundleManifest.getInstance(service);
+            if (manifest == null) {
+                throw new IOException("Webpack stats file not found.");
+            }
 
-            for (String key : chunks.keys()) {
+            for (Map.Entry<String, String> chunk : manifest.getChunks()
+                    .entrySet()) {
+                String key = chunk.getKey();
                 Element script = createJavaScriptElement(
-                        "./" + VAADIN_MAPPING + chunks.getString(key));
+                        "./" + VAADIN_MAPPING + chunk.getValue());
                 if (key.endsWith(".es5")) {
                     head.appendChild(script.attr("nomodule", true));
                 } else {
@@ -925,7 +1048,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     + "}"); // @formatter:on
         }
 
-        private void setupMetaAndTitle(Element head, BootstrapContext context) {
+        private void setupMetaAndTitle(Element head, BootstrapContext context,
+                Optional<String> title) {
             head.appendElement(META_TAG).attr("http-equiv", "Content-Type")
                     .attr(CONTENT_ATTRIBUTE,
                             ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
@@ -945,11 +1069,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                             .attr("name", name)
                             .attr(CONTENT_ATTRIBUTE, content));
 
-            resolvePageTitle(context).ifPresent(title -> {
-                if (!title.isEmpty()) {
-                    head.appendElement("title").appendText(title);
-                }
-            });
+            title.ifPresent(
+                    value -> head.appendElement("title").appendText(value));
         }
 
         private void setupPwa(Document document, BootstrapContext context) {
@@ -1171,8 +1292,13 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         private Element getBootstrapScript(JsonValue initialUIDL,
                 BootstrapContext context) {
             return createInlineJavaScriptElement(
-                    "//<![CDATA[\n" + getBootstrapJS(initialUIDL, context)
-                            + "//]]>");
+                    getBootstrapScriptContents(initialUIDL, context));
+        }
+
+        private String getBootstrapScriptContents(JsonValue initialUIDL,
+                BootstrapContext context) {
+            return "//<![CDATA[\n" + getBootstrapJS(initialUIDL, context)
+                    + "//]]>";
         }
 
         private String getBootstrapJS() {
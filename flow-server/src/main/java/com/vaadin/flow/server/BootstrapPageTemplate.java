@@ -0,0 +1,112 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+
+/**
+ * A serialized bootstrap page with placeholders for the page title and the
+ * contents of the bootstrap script, which are the only parts of a bootstrap
+ * page that differ between requests for the same UI, navigation target, theme
+ * and browser capabilities.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+final class BootstrapPageTemplate implements Serializable {
+
+    /**
+     * Placeholder for the escaped page title.
+     */
+    static final String TITLE_PLACEHOLDER = "__vaadin_bootstrap_page_title__";
+
+    /**
+     * Placeholder for the contents of the bootstrap script.
+     */
+    static final String SCRIPT_PLACEHOLDER = "__vaadin_bootstrap_script__";
+
+    private final String beforeTitle;
+    private final String beforeScript;
+    private final String end;
+
+    private BootstrapPageTemplate(String beforeTitle, String beforeScript,
+            String end) {
+        this.beforeTitle = beforeTitle;
+        this.beforeScript = beforeScript;
+        this.end = end;
+    }
+
+    /**
+     * Creates a template from a serialized bootstrap page containing the
+     * script placeholder and, if the page has a title, the title placeholder
+     * before it.
+     *
+     * @param html
+     *            the serialized bootstrap page
+     * @param hasTitle
+     *            whether the page contains the title placeholder
+     * @return the template, or <code>null</code> if the placeholders are not
+     *         found exactly once in the expected order
+     */
+    static BootstrapPageTemplate create(String html, boolean hasTitle) {
+        int title = html.indexOf(TITLE_PLACEHOLDER);
+        int script = html.indexOf(SCRIPT_PLACEHOLDER);
+        if (script < 0
+                || html.indexOf(SCRIPT_PLACEHOLDER, script + 1) >= 0
+                || hasTitle != title >= 0) {
+            return null;
+        }
+        if (!hasTitle) {
+            return new BootstrapPageTemplate(null, html.substring(0, script),
+                    html.substring(script + SCRIPT_PLACEHOLDER.length()));
+        }
+        if (title > script
+                || html.indexOf(TITLE_PLACEHOLDER, title + 1) >= 0) {
+            return null;
+        }
+        return new BootstrapPageTemplate(html.substring(0, title),
+                html.substring(title + TITLE_PLACEHOLDER.length(), script),
+                html.substring(script + SCRIPT_PLACEHOLDER.length()));
+    }
+
+    /**
+     * Assembles a bootstrap page from this template.
+     *
+     * @param title
+     *            the page title, or <code>null</code> if the template has no
+     *            title
+     * @param script
+     *            the contents of the bootstrap script
+     * @return the serialized bootstrap page
+     */
+    String merge(String title, String script) {
+        assert (title == null) == (beforeTitle == null);
+
+        StringBuilder html = new StringBuilder(
+                (beforeTitle == null ? 0 : beforeTitle.length() + 64)
+                        + beforeScript.length() + script.length()
+                        + end.length());
+        if (beforeTitle != null) {
+            html.append(beforeTitle).append(Entities.escape(title,
+                    new Document("").outputSettings().prettyPrint(false)));
+        }
+        return html.append(beforeScript).append(script).append(end)
+                .toString();
+    }
+}
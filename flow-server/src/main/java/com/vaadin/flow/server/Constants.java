@@ -72,6 +72,85 @@ public final class Constants implements Serializable {
      */
     public static final String SERVLET_PARAMETER_BROTLI = "brotli";
 
+    /**
+     * Configuration name for the parameter that determines whether UIDL
+     * responses should be streamed to the client while they are being created
+     * instead of being built completely in memory first.
+     */
+    public static final String SERVLET_PARAMETER_UIDL_STREAMING = "uidlStreaming";
+
+    /**
+     * Configuration name for the parameter that determines whether resolved
+     * static resources should be cached by the static file server in
+     * production mode.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE = "staticResourceCache";
+
+    /**
+     * Configuration name for the parameter that sets the maximum total size in
+     * bytes of static resource contents kept in memory by the static file
+     * server.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE = "staticResourceCacheSize";
+
+    /**
+     * Configuration name for the parameter that sets the maximum size in bytes
+     * of a single static resource kept in memory by the static file server.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_MAX_FILE_SIZE = "staticResourceCacheMaxFileSize";
+
+    /**
+     * Configuration name for the parameter that determines whether bootstrap
+     * pages should be assembled from precompiled templates in production mode.
+     */
+    public static final String SERVLET_PARAMETER_PRECOMPILED_BOOTSTRAP = "precompiledBootstrap";
+
+    /**
+     * Configuration name for the parameter that sets the minimum interval in
+     * milliseconds between two asynchronous push messages sent to the same
+     * client.
+     */
+    public static final String SERVLET_PARAMETER_PUSH_COALESCING_WINDOW = "pushCoalescingWindow";
+
+    /**
+     * Configuration name for the parameter that determines whether tasks
+     * submitted with {@code UI.access} are queued per UI instead of directly
+     * in the session access queue.
+     */
+    public static final String SERVLET_PARAMETER_UI_ACCESS_QUEUE = "uiAccessQueue";
+
+    /**
+     * Configuration name for the parameter that determines whether pending
+     * access tasks of a session are run on virtual threads, if the JVM
+     * supports them.
+     */
+    public static final String SERVLET_PARAMETER_VIRTUAL_THREAD_ACCESS = "virtualThreadAccess";
+
+    /**
+     * Configuration name for the parameter that sets the size in bytes of the
+     * buffer used for copying uploaded files to their receivers.
+     */
+    public static final String SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE = "uploadBufferSize";
+
+    /**
+     * Default value for
+     * {@link #SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE}, 16 MB.
+     */
+    public static final int STATIC_RESOURCE_CACHE_SIZE_DEFAULT = 16 * 1024
+            * 1024;
+
+    /**
+     * Default value for
+     * {@link #SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_MAX_FILE_SIZE}, 1 MB.
+     */
+    public static final int STATIC_RESOURCE_CACHE_MAX_FILE_SIZE_DEFAULT = 1024
+            * 1024;
+
+    /**
+     * Default value for {@link #SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE}, 64 kB.
+     */
+    public static final int UPLOAD_BUFFER_SIZE_DEFAULT = 64 * 1024;
+
     /**
      * Configuration name for loading the ES5 adapters.
      */
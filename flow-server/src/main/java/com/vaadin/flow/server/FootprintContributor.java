@@ -0,0 +1,46 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.function.ObjIntConsumer;
+
+import com.vaadin.flow.component.internal.UIInternals;
+
+/**
+ * Contributes the number of items retained by some part of a UI to its
+ * {@link UIFootprint}, for parts that are not directly visible from the state
+ * tree, e.g. the keys mapped by a data communicator.
+ * <p>
+ * Contributors are registered with
+ * {@link UIInternals#addFootprintContributor(FootprintContributor)}.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface FootprintContributor extends Serializable {
+
+    /**
+     * Reports the number of retained items of each kind to the given counter.
+     * Counts reported for the same name by different contributors are summed.
+     *
+     * @param counter
+     *            the counter accepting a name and a count, not
+     *            <code>null</code>
+     */
+    void contribute(ObjIntConsumer<String> counter);
+}
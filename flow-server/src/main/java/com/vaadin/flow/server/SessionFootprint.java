@@ -0,0 +1,105 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A snapshot of the amount of server-side state retained by a
+ * {@link VaadinSession}, consisting of the footprints of its UIs and its
+ * registered stream resources.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ * @see VaadinService#addSessionFootprintListener(SessionFootprintListener)
+ */
+public class SessionFootprint implements Serializable {
+
+    private static final long BYTES_PER_RESOURCE = 200;
+
+    private final transient VaadinSession session;
+    private final List<UIFootprint> uiFootprints;
+    private final int streamResourceCount;
+
+    /**
+     * Creates a footprint snapshot of the given session, which must be locked.
+     *
+     * @param session
+     *            the session to measure, not <code>null</code>
+     */
+    public SessionFootprint(VaadinSession session) {
+        session.checkHasLock();
+
+        this.session = session;
+        uiFootprints = Collections.unmodifiableList(session.getUIs().stream()
+                .map(UIFootprint::new).collect(Collectors.toList()));
+        streamResourceCount = session.getResourceRegistry()
+                .getResourceCount();
+    }
+
+    /**
+     * Gets the measured session.
+     *
+     * @return the measured session, or <code>null</code> if this snapshot
+     *         has been deserialized
+     */
+    public VaadinSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the footprints of all UIs of the session.
+     *
+     * @return an unmodifiable list of UI footprints, not <code>null</code>
+     */
+    public List<UIFootprint> getUIFootprints() {
+        return uiFootprints;
+    }
+
+    /**
+     * Gets the number of stream resources registered with the session.
+     *
+     * @return the number of stream resources
+     */
+    public int getStreamResourceCount() {
+        return streamResourceCount;
+    }
+
+    /**
+     * Gets a rough estimate of the number of bytes retained by the UIs and
+     * resources of the session.
+     *
+     * @return the estimated size in bytes
+     * @see UIFootprint#getEstimatedSize()
+     */
+    public long getEstimatedSize() {
+        long size = streamResourceCount * BYTES_PER_RESOURCE;
+        for (UIFootprint footprint : uiFootprints) {
+            size += footprint.getEstimatedSize();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionFootprint[uis=" + uiFootprints + ", streamResources="
+                + streamResourceCount + ", estimatedSize="
+                + getEstimatedSize() + "]";
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+/**
+ * Listener that receives a {@link SessionFootprint} at the end of each request
+ * to a session.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ * @see VaadinService#addSessionFootprintListener(SessionFootprintListener)
+ */
+@FunctionalInterface
+public interface SessionFootprintListener extends Serializable {
+
+    /**
+     * Invoked with the footprint of a session after a request to it has been
+     * handled. The session is locked while the listener is invoked.
+     *
+     * @param footprint
+     *            the footprint of the session, not <code>null</code>
+     */
+    void footprintMeasured(SessionFootprint footprint);
+}
@@ -17,6 +17,8 @@ package com.vaadin.flow.server;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.ResponseWriter;
+import com.vaadin.flow.internal.StaticResourceCache;
+import com.vaadin.flow.internal.StaticResourceCache.CachedResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +42,14 @@ import static com.vaadin.flow.shared.ApplicationConstants.VAADIN_STATIC_FILES_PA
  * production mode site you should consider serving static resources directly
  * from the servlet (using a default servlet if such exists) or through a stand
  * alone static file server.
+ * <p>
+ * In production mode, resolved resources are cached together with their
+ * metadata and precompressed variants, see
+ * {@link DeploymentConfiguration#isStaticResourceCacheEnabled()}. Cached
+ * resources get their <code>Last-Modified</code> header from the cache
+ * instead of
+ * {@link #writeModificationTimestamp(URL, HttpServletRequest, HttpServletResponse)},
+ * so the cache is not used by subclasses that override that method.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -48,6 +58,7 @@ public class StaticFileServer implements StaticFileHandler {
     private final ResponseWriter responseWriter;
     private final VaadinServletService servletService;
     private DeploymentConfiguration deploymentConfiguration;
+    private final StaticResourceCache resourceCache;
 
     /**
      * Constructs a file server.
@@ -59,6 +70,34 @@ public class StaticFileServer implements StaticFileHandler {
         this.servletService = servletService;
         deploymentConfiguration = servletService.getDeploymentConfiguration();
         responseWriter = new ResponseWriter(deploymentConfiguration);
+        if (deploymentConfiguration.isProductionMode()
+                && deploymentConfiguration.isStaticResourceCacheEnabled()
+                && !isModificationTimestampOverridden()) {
+            resourceCache = new StaticResourceCache(
+                    deploymentConfiguration.getStaticResourceCacheSize(),
+                    deploymentConfiguration
+                            .getStaticResourceCacheMaxFileSize());
+        } else {
+            resourceCache = null;
+        }
+    }
+
+    private boolean isModificationTimestampOverridden() {
+        for (Class<?> type = getClass(); type != StaticFileServer.class; type = type
+                .getSuperclass()) {
+            try {
+                type.getDeclaredMethod("writeModificationTimestamp", URL.class,
+                        HttpServletRequest.class, HttpServletResponse.class);
+                getLogger().debug(
+                        "Static resource cache disabled since {} overrides "
+                                + "writeModificationTimestamp",
+                        type.getName());
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not overridden by this class, check the superclass
+            }
+        }
+        return false;
     }
 
     @Override
@@ -88,6 +127,15 @@ public class StaticFileServer implements StaticFileHandler {
             HttpServletResponse response) throws IOException {
 
         String filenameWithPath = getRequestFilename(request);
+        if (resourceCache != null) {
+            CachedResource resource = resourceCache.get(filenameWithPath);
+            if (resource != null) {
+                serveCachedResource(filenameWithPath, resource, request,
+                        response);
+                return true;
+            }
+        }
+
         URL resourceUrl = null;
         if (filenameWithPath.startsWith("/" + VAADIN_BUILD_FILES_PATH)
                 && isAllowedVAADINBuildUrl(filenameWithPath)) {
@@ -105,6 +153,15 @@ public class StaticFileServer implements StaticFileHandler {
 
         // There is a resource!
 
+        if (resourceCache != null) {
+            CachedResource resource = resourceCache.resolve(filenameWithPath,
+                    resourceUrl, request.getServletContext(),
+                    deploymentConfiguration.isBrotli());
+            serveCachedResource(filenameWithPath, resource, request,
+                    response);
+            return true;
+        }
+
         // Intentionally writing cache headers also for 304 responses
         writeCacheHeaders(filenameWithPath, response);
 
@@ -121,6 +178,31 @@ public class StaticFileServer implements StaticFileHandler {
         return true;
     }
 
+    private void serveCachedResource(String filenameWithPath,
+            CachedResource resource, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        // Intentionally writing cache headers also for 304 responses
+        writeCacheHeaders(filenameWithPath, response);
+
+        long timestamp = resource.getLastModified();
+        if (timestamp != -1L) {
+            response.setDateHeader("Last-Modified", timestamp);
+        }
+        String eTag = resource.getETag();
+        if (eTag != null) {
+            response.setHeader("ETag", eTag);
+        }
+        if (eTag != null && eTag.equals(request.getHeader("If-None-Match"))
+                || browserHasNewestVersion(request, timestamp)) {
+            // Browser is up to date, nothing further to do than set the
+            // response code
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        responseWriter.writeResponseContents(filenameWithPath, resource,
+                request, response);
+    }
+
     /**
      * Check if it is ok to serve the requested file from the classpath.
      * <p>
@@ -173,4 +173,14 @@ public class StreamResourceRegistry implements Serializable {
         }
         return Optional.empty();
     }
+
+    /**
+     * Gets the number of resources registered with this registry.
+     *
+     * @return the number of registered resources
+     */
+    public int getResourceCount() {
+        session.checkHasLock();
+        return res.size();
+    }
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.internal.ConstantPoolKey;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Publishes the same update to many UIs, for instance live data shown by all
+ * UIs of a dashboard.
+ * <p>
+ * Each subscriber is notified through {@link UI#access(Command)}, so the
+ * listener may freely modify its UI and the changes are pushed to the client
+ * if the UI uses automatic push. The same update instance is passed to every
+ * listener, possibly from different threads and at different times, so it
+ * should be immutable.
+ * <p>
+ * A broadcaster created with an encoder converts each published update to
+ * JSON only once, in the publishing thread before any session is locked.
+ * Listeners subscribed with {@link #subscribeToBroadcast(UI,
+ * SerializableConsumer)} get the update as a {@link Broadcast}, which gives
+ * each UI its own copy of the encoded JSON, so that copying the JSON is the
+ * only cost per UI. The encoded JSON can also be used as a constant pool value
+ * with an id calculated only once for all UIs.
+ * <p>
+ * Subscriptions are removed automatically when the UI is detached.
+ *
+ * @param <T>
+ *            the type of the published updates
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public class UIBroadcaster<T> implements Serializable {
+
+    private final Set<Subscription<T>> subscriptions = ConcurrentHashMap
+            .newKeySet();
+
+    private final SerializableFunction<T, JsonValue> encoder;
+
+    private static final class Subscription<T> implements Serializable {
+        private final UI ui;
+        private final SerializableConsumer<Broadcast<T>> listener;
+        private Registration detachRegistration;
+
+        private Subscription(UI ui,
+                SerializableConsumer<Broadcast<T>> listener) {
+            this.ui = ui;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * One published update, shared by all the UIs it is applied to.
+     *
+     * @param <T>
+     *            the type of the published update
+     */
+    public static final class Broadcast<T> implements Serializable {
+        private final T update;
+        // Never modified after encoding, only copied
+        private final JsonValue json;
+        private ConstantPoolKey constantPoolKey;
+
+        private Broadcast(T update, JsonValue json) {
+            this.update = update;
+            this.json = json;
+        }
+
+        /**
+         * Gets the published update.
+         *
+         * @return the published update
+         */
+        public T getUpdate() {
+            return update;
+        }
+
+        /**
+         * Gets a copy of the JSON that the published update was encoded to.
+         * A new copy is returned for each call, so it may be modified and
+         * stored in the state of a UI.
+         *
+         * @return a copy of the encoded update, not <code>null</code>
+         * @throws IllegalStateException
+         *             if the broadcaster has no encoder
+         */
+        public JsonValue getJson() {
+            return copy(getEncodedJson());
+        }
+
+        /**
+         * Gets a constant pool key for the JSON that the published update was
+         * encoded to. The same key is returned for all UIs, so its id is only
+         * calculated once per published update.
+         *
+         * @return a constant pool key for the encoded update, not
+         *         <code>null</code>
+         * @throws IllegalStateException
+         *             if the broadcaster has no encoder
+         */
+        public synchronized ConstantPoolKey getConstantPoolKey() {
+            if (constantPoolKey == null) {
+                constantPoolKey = new ConstantPoolKey(getEncodedJson());
+            }
+            return constantPoolKey;
+        }
+
+        private JsonValue getEncodedJson() {
+            if (json == null) {
+                throw new IllegalStateException(
+                        "The broadcaster has no encoder");
+            }
+            return json;
+        }
+    }
+
+    /**
+     * Creates a broadcaster that passes published updates to the listeners
+     * without encoding them.
+     */
+    public UIBroadcaster() {
+        encoder = null;
+    }
+
+    /**
+     * Creates a broadcaster that encodes each published update to JSON once,
+     * for instance using
+     * {@link com.vaadin.flow.internal.JsonSerializer#toJson(Object)
+     * JsonSerializer::toJson}.
+     *
+     * @param encoder
+     *            the function encoding a published update, not
+     *            <code>null</code>
+     */
+    public UIBroadcaster(SerializableFunction<T, JsonValue> encoder) {
+        if (encoder == null) {
+            throw new IllegalArgumentException("Encoder cannot be null");
+        }
+        this.encoder = encoder;
+    }
+
+    /**
+     * Subscribes the given UI to the updates published by this broadcaster.
+     * The listener is run with the UI's session locked for each published
+     * update.
+     *
+     * @param ui
+     *            the UI to update, not <code>null</code>
+     * @param listener
+     *            the listener that applies an update to the UI, not
+     *            <code>null</code>
+     * @return a registration for removing the subscription
+     */
+    public Registration subscribe(UI ui, SerializableConsumer<T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        return subscribeToBroadcast(ui,
+                broadcast -> listener.accept(broadcast.getUpdate()));
+    }
+
+    /**
+     * Subscribes the given UI to the updates published by this broadcaster,
+     * including the JSON encoded once for all UIs. The listener is run with
+     * the UI's session locked for each published update.
+     *
+     * @param ui
+     *            the UI to update, not <code>null</code>
+     * @param listener
+     *            the listener that applies an update to the UI, not
+     *            <code>null</code>
+     * @return a registration for removing the subscription
+     */
+    public Registration subscribeToBroadcast(UI ui,
+            SerializableConsumer<Broadcast<T>> listener) {
+        if (ui == null) {
+            throw new IllegalArgumentException("UI cannot be null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        Subscription<T> subscription = new Subscription<>(ui, listener);
+        subscription.detachRegistration = ui
+                .addDetachListener(event -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return () -> {
+            subscriptions.remove(subscription);
+            subscription.detachRegistration.remove();
+        };
+    }
+
+    /**
+     * Publishes an update to all subscribed UIs. If this broadcaster has an
+     * encoder, the update is encoded once before any UI is accessed.
+     *
+     * @param update
+     *            the update to publish
+     */
+    public void publish(T update) {
+        Broadcast<T> broadcast = new Broadcast<>(update,
+                encoder == null ? null : encoder.apply(update));
+        for (Subscription<T> subscription : subscriptions) {
+            try {
+                subscription.ui.access(
+                        () -> subscription.listener.accept(broadcast));
+            } catch (UIDetachedException e) {
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of UIs currently subscribed to this broadcaster.
+     *
+     * @return the number of subscriptions
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    private static JsonValue copy(JsonValue value) {
+        switch (value.getType()) {
+        case OBJECT:
+            JsonObject object = (JsonObject) value;
+            JsonObject objectCopy = Json.createObject();
+            for (String key : object.keys()) {
+                objectCopy.put(key, copy(object.get(key)));
+            }
+            return objectCopy;
+        case ARRAY:
+            JsonArray array = (JsonArray) value;
+            JsonArray arrayCopy = Json.createArray();
+            for (int i = 0; i < array.length(); i++) {
+                arrayCopy.set(i, copy(array.get(i)));
+            }
+            return arrayCopy;
+        default:
+            // Strings, numbers, booleans and null cannot be modified
+            return value;
+        }
+    }
+}
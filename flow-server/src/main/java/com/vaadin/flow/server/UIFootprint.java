@@ -0,0 +1,160 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * A snapshot of the amount of server-side state retained by a {@link UI}.
+ * <p>
+ * The counts are exact, but the estimated size is only a rough
+ * approximation based on typical per-item sizes. It is meant for comparing
+ * views and spotting regressions, not as an exact measure of heap usage.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public class UIFootprint implements Serializable {
+
+    // Typical retained sizes of a node including its element and component,
+    // and of an initialized feature, measured with JOL on a 64-bit JVM with
+    // compressed references
+    private static final long BYTES_PER_NODE = 170;
+    private static final long BYTES_PER_FEATURE = 50;
+    private static final long BYTES_PER_CONSTANT = 150;
+    private static final long BYTES_PER_CONTRIBUTED_ITEM = 100;
+
+    private final int uiId;
+    private final int nodeCount;
+    private final int featureCount;
+    private final int beforeClientResponseEntryCount;
+    private final int constantCount;
+    private final Map<String, Integer> contributedCounts;
+
+    /**
+     * Creates a footprint snapshot of the given UI. The session of the UI must
+     * be locked.
+     *
+     * @param ui
+     *            the UI to measure, not <code>null</code>
+     */
+    public UIFootprint(UI ui) {
+        ui.getSession().checkHasLock();
+
+        UIInternals internals = ui.getInternals();
+        StateTree stateTree = internals.getStateTree();
+
+        uiId = ui.getUIId();
+        nodeCount = stateTree.getNodeCount();
+        featureCount = stateTree.getFeatureCount();
+        beforeClientResponseEntryCount = stateTree
+                .getBeforeClientResponseEntryCount();
+        constantCount = internals.getConstantPool().getConstantCount();
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        internals.getFootprintContributors()
+                .forEach(contributor -> contributor.contribute(
+                        (name, count) -> counts.merge(name, count,
+                                Integer::sum)));
+        contributedCounts = Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Gets the id of the measured UI.
+     *
+     * @return the UI id
+     */
+    public int getUIId() {
+        return uiId;
+    }
+
+    /**
+     * Gets the number of state nodes registered with the state tree.
+     *
+     * @return the number of state nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the number of initialized node features of all state nodes.
+     *
+     * @return the number of node features
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Gets the number of pending tasks to run before the next client response.
+     *
+     * @return the number of pending tasks
+     */
+    public int getBeforeClientResponseEntryCount() {
+        return beforeClientResponseEntryCount;
+    }
+
+    /**
+     * Gets the number of constants in the constant pool.
+     *
+     * @return the number of constants
+     */
+    public int getConstantCount() {
+        return constantCount;
+    }
+
+    /**
+     * Gets the item counts reported by the {@link FootprintContributor}s of the
+     * UI, by name.
+     *
+     * @return an unmodifiable map of item counts, not <code>null</code>
+     */
+    public Map<String, Integer> getContributedCounts() {
+        return contributedCounts;
+    }
+
+    /**
+     * Gets a rough estimate of the number of bytes retained by the UI.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedSize() {
+        long contributedItems = 0;
+        for (Integer count : contributedCounts.values()) {
+            contributedItems += count.intValue();
+        }
+        return nodeCount * BYTES_PER_NODE + featureCount * BYTES_PER_FEATURE
+                + constantCount * BYTES_PER_CONSTANT
+                + contributedItems * BYTES_PER_CONTRIBUTED_ITEM;
+    }
+
+    @Override
+    public String toString() {
+        return "UIFootprint[uiId=" + uiId + ", nodes=" + nodeCount
+                + ", features=" + featureCount + ", beforeClientResponse="
+                + beforeClientResponseEntryCount + ", constants="
+                + constantCount + ", contributed=" + contributedCounts
+                + ", estimatedSize=" + getEstimatedSize() + "]";
+    }
+}
@@ -76,7 +76,10 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -146,6 +149,14 @@ public abstract class VaadinService implements Serializable {
 
     private static final String REQUEST_START_TIME_ATTRIBUTE = "requestStartTime";
 
+    /**
+     * Guards the creation of session locks. A lock is used instead of a
+     * synchronized block so that a virtual thread waiting for it, for instance
+     * while another thread stores the lock in a slow session store, does not
+     * pin its carrier thread.
+     */
+    private static final Lock SESSION_LOCK_CREATION_LOCK = new ReentrantLock();
+
     /**
      * Should never be used directly, always use
      * {@link #getDeploymentConfiguration()}.
@@ -164,6 +175,7 @@ public abstract class VaadinService implements Serializable {
     private final List<SessionInitListener> sessionInitListeners = new CopyOnWriteArrayList<>();
     private final List<UIInitListener> uiInitListeners = new CopyOnWriteArrayList<>();
     private final List<SessionDestroyListener> sessionDestroyListeners = new CopyOnWriteArrayList<>();
+    private final List<SessionFootprintListener> sessionFootprintListeners = new CopyOnWriteArrayList<>();
 
     private SystemMessagesProvider systemMessagesProvider = DefaultSystemMessagesProvider
             .get();
@@ -198,6 +210,12 @@ public abstract class VaadinService implements Serializable {
 
     private Registration htmlImportDependencyCacheClearRegistration;
 
+    /**
+     * Runs pending access tasks of sessions that are not locked by the thread
+     * adding the task, or <code>null</code> to run them on that thread.
+     */
+    private transient ExecutorService accessExecutor;
+
     private VaadinContext vaadinContext;
 
     /**
@@ -324,9 +342,39 @@ public abstract class VaadinService implements Serializable {
         htmlImportDependencyCacheClearRegistration = ReflectionCache
                 .addClearAllAction(htmlImportDependencyCache::clear);
 
+        if (configuration.isVirtualThreadAccessEnabled()) {
+            accessExecutor = createAccessExecutor();
+            if (accessExecutor == null) {
+                getLogger().warn("Virtual threads are not available in this "
+                        + "JVM, pending access tasks are run on the thread "
+                        + "adding them.");
+            }
+        }
+
         initialized = true;
     }
 
+    /**
+     * Creates the executor used for purging the access queues of sessions when
+     * {@link DeploymentConfiguration#isVirtualThreadAccessEnabled() virtual
+     * thread access} is enabled. By default, an executor starting a new
+     * virtual thread for each task is created if the JVM supports virtual
+     * threads. The executor is shut down when the service is destroyed.
+     *
+     * @return the executor to use, or <code>null</code> to purge the queues on
+     *         the thread adding the access task
+     */
+    protected ExecutorService createAccessExecutor() {
+        try {
+            // Looked up reflectively to keep running on Java 8
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available or only available as a preview feature
+            return null;
+        }
+    }
+
     /**
      * Find a route registry to use for this service.
      *
@@ -610,6 +658,25 @@ public abstract class VaadinService implements Serializable {
         return () -> sessionDestroyListeners.remove(listener);
     }
 
+    /**
+     * Adds a listener that gets notified with the {@link SessionFootprint} of a
+     * session at the end of each request to it.
+     * <p>
+     * Measuring a footprint visits all state nodes of all UIs in the session,
+     * so while any listener is registered, each request takes time
+     * proportional to the size of the session. This is intended for
+     * diagnostics in development and staging environments.
+     *
+     * @param listener
+     *            the session footprint listener
+     * @return a handle that can be used for removing the listener
+     */
+    public Registration addSessionFootprintListener(
+            SessionFootprintListener listener) {
+        sessionFootprintListeners.add(listener);
+        return () -> sessionFootprintListeners.remove(listener);
+    }
+
     /**
      * Fires the
      * {@link BootstrapListener#modifyBootstrapPage(BootstrapPageResponse)}
@@ -626,6 +693,19 @@ public abstract class VaadinService implements Serializable {
                 .forEach(listener -> listener.modifyBootstrapPage(response));
     }
 
+    /**
+     * Checks whether any {@link BootstrapListener} is registered. Bootstrap
+     * pages can only be assembled from precompiled templates if there are no
+     * listeners that might modify them.
+     *
+     * @return <code>true</code> if there are registered bootstrap listeners,
+     *         <code>false</code> otherwise
+     */
+    public boolean hasBootstrapListeners() {
+        return bootstrapListeners != null
+                && bootstrapListeners.iterator().hasNext();
+    }
+
     /**
      * Handles destruction of the given session. Internally ensures proper
      * locking is done.
@@ -785,12 +865,15 @@ public abstract class VaadinService implements Serializable {
              * the CPU flushes its caches and reads the value directly from main
              * memory).
              */
-            synchronized (VaadinService.class) {
+            SESSION_LOCK_CREATION_LOCK.lock();
+            try {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
                     lock = new ReentrantLock();
                     setSessionLock(wrappedSession, lock);
                 }
+            } finally {
+                SESSION_LOCK_CREATION_LOCK.unlock();
             }
         }
         lock.lock();
@@ -1475,6 +1558,7 @@ public abstract class VaadinService implements Serializable {
                 final long duration = (System.nanoTime() - (Long) request
                         .getAttribute(REQUEST_START_TIME_ATTRIBUTE)) / 1000000;
                 session.setLastRequestDuration(duration);
+                fireSessionFootprint(session);
             } finally {
                 session.unlock();
             }
@@ -1482,6 +1566,16 @@ public abstract class VaadinService implements Serializable {
         CurrentInstance.clearAll();
     }
 
+    private void fireSessionFootprint(VaadinSession session) {
+        if (sessionFootprintListeners.isEmpty()
+                || session.getState() != VaadinSessionState.OPEN) {
+            return;
+        }
+        SessionFootprint footprint = new SessionFootprint(session);
+        sessionFootprintListeners
+                .forEach(listener -> listener.footprintMeasured(footprint));
+    }
+
     /**
      * Returns the request handlers that are registered with this service. The
      * iteration order of the returned collection is the same as the order in
@@ -1924,11 +2018,28 @@ public abstract class VaadinService implements Serializable {
      * thread, the queue will be purged when the session is unlocked. If the
      * lock is not held by any thread, it is acquired and the queue is purged
      * right away.
+     * <p>
+     * If {@link DeploymentConfiguration#isVirtualThreadAccessEnabled() virtual
+     * thread access} is enabled and the session is not locked by the current
+     * thread, the queue is purged on a new virtual thread instead so that the
+     * current thread does not wait for the lock or run the tasks.
      *
      * @param session
      *            the session for which the access queue should be purged
      */
     public void ensureAccessQueuePurged(VaadinSession session) {
+        if (accessExecutor != null && !session.hasLock()) {
+            try {
+                accessExecutor.execute(() -> purgeAccessQueue(session));
+                return;
+            } catch (RejectedExecutionException e) {
+                // The service is being destroyed, purge on this thread
+            }
+        }
+        purgeAccessQueue(session);
+    }
+
+    private void purgeAccessQueue(VaadinSession session) {
         /*
          * If no thread is currently holding the lock, pending changes for UIs
          * with automatic push would not be processed and pushed until the next
@@ -2027,6 +2138,10 @@ public abstract class VaadinService implements Serializable {
     public void destroy() {
         htmlImportDependencyCacheClearRegistration.remove();
 
+        if (accessExecutor != null) {
+            accessExecutor.shutdown();
+        }
+
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
@@ -22,17 +22,24 @@ import java.io.Reader;
 import java.io.Serializable;
 import java.io.StringReader;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.atmosphere.cpr.AtmosphereResource;
 import org.atmosphere.cpr.AtmosphereResource.TRANSPORT;
+import org.atmosphere.cpr.Broadcaster;
+import org.atmosphere.cpr.BroadcasterConfig;
 import org.atmosphere.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.UsageStatistics;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.communication.PushConstants;
 
 import elemental.json.JsonObject;
@@ -51,6 +58,10 @@ public class AtmospherePushConnection implements PushConnection {
     private transient AtmosphereResource resource;
     private transient FragmentedMessage incomingMessage;
     private transient Future<Object> outgoingMessage;
+    private transient int coalescingWindow;
+    private transient long lastPushTime;
+    private transient boolean pushPending;
+    private transient boolean flushScheduled;
 
     /**
      * Represents a message that can arrive as multiple fragments.
@@ -189,15 +200,94 @@ public class AtmospherePushConnection implements PushConnection {
             } else {
                 state = State.RESPONSE_PENDING;
             }
+        } else if (async && isCoalescing() && scheduleFlush()) {
+            pushPending = true;
         } else {
-            try {
-                JsonObject response = new UidlWriter().createUidl(getUI(),
-                        async);
-                sendMessage("for(;;);[" + response.toJson() + "]");
-            } catch (Exception e) {
-                throw new RuntimeException("Push failed", e);
-            }
+            pushPending = false;
+            sendPush(async);
+        }
+    }
+
+    private void sendPush(boolean async) {
+        try {
+            JsonObject response = new UidlWriter().createUidl(getUI(), async);
+            sendMessage("for(;;);[" + response.toJson() + "]");
+            lastPushTime = System.currentTimeMillis();
+        } catch (Exception e) {
+            throw new RuntimeException("Push failed", e);
+        }
+    }
+
+    private boolean isCoalescing() {
+        if (coalescingWindow <= 0) {
+            return false;
+        }
+        return pushPending || isWritingMessage() || System.currentTimeMillis()
+                - lastPushTime < coalescingWindow;
+    }
+
+    private boolean isWritingMessage() {
+        return outgoingMessage != null && !outgoingMessage.isDone();
+    }
+
+    // Returns whether a deferred push is scheduled
+    private boolean scheduleFlush() {
+        if (flushScheduled) {
+            return true;
+        }
+        ScheduledExecutorService scheduler = getScheduler();
+        if (scheduler == null) {
+            return false;
         }
+        long delay = isWritingMessage() ? coalescingWindow
+                : lastPushTime + coalescingWindow - System.currentTimeMillis();
+        try {
+            scheduler.schedule(this::flushInUI, Math.max(delay, 1),
+                    TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            getLogger().debug("Unable to schedule a coalesced push", e);
+        }
+        return flushScheduled;
+    }
+
+    private void flushInUI() {
+        try {
+            getUI().access(this::flushPendingPush);
+        } catch (UIDetachedException e) {
+            getLogger().debug("Skipping a coalesced push to a detached UI",
+                    e);
+        }
+    }
+
+    private void flushPendingPush() {
+        flushScheduled = false;
+        if (!pushPending) {
+            // Already sent along with a response
+            return;
+        }
+        if (!isConnected()) {
+            pushPending = false;
+            push(true);
+        } else if (!isWritingMessage() || !scheduleFlush()) {
+            pushPending = false;
+            sendPush(true);
+        }
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        Broadcaster broadcaster = resource.getBroadcaster();
+        BroadcasterConfig config = broadcaster == null ? null
+                : broadcaster.getBroadcasterConfig();
+        return config == null ? null : config.getScheduledExecutorService();
+    }
+
+    private int readCoalescingWindow() {
+        VaadinSession session = getUI().getSession();
+        DeploymentConfiguration configuration = session == null ? null
+                : session.getConfiguration();
+        return configuration == null ? 0
+                : configuration.getPushCoalescingWindow();
     }
 
     /**
@@ -279,6 +369,7 @@ public class AtmospherePushConnection implements PushConnection {
         this.resource = resource;
         State oldState = state;
         state = State.CONNECTED;
+        coalescingWindow = readCoalescingWindow();
 
         if (oldState == State.PUSH_PENDING
                 || oldState == State.RESPONSE_PENDING) {
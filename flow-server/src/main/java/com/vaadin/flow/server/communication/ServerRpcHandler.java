@@ -16,6 +16,7 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serializable;
@@ -34,7 +35,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
-import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
@@ -190,6 +190,21 @@ public class ServerRpcHandler implements Serializable {
 
     private static final int MAX_BUFFER_SIZE = 64 * 1024;
 
+    private static final int DEFAULT_BUFFER_SIZE = 4 * 1024;
+
+    /**
+     * Passes the length of the request body to {@link #getMessage(Reader)}
+     * without changing the signature of that method.
+     */
+    private static class ContentLengthReader extends FilterReader {
+        private final int contentLength;
+
+        private ContentLengthReader(Reader reader, int contentLength) {
+            super(reader);
+            this.contentLength = contentLength;
+        }
+    }
+
     /**
      * Exception thrown then the security key sent by the client does not match
      * the expected one.
@@ -228,7 +243,11 @@ public class ServerRpcHandler implements Serializable {
             throws IOException, InvalidUIDLSecurityKeyException {
         ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
 
-        String changeMessage = getMessage(reader);
+        int contentLength = request == null ? -1
+                : request.getContentLength();
+        String changeMessage = getMessage(contentLength > 0
+                ? new ContentLengthReader(reader, contentLength)
+                : reader);
 
         if (changeMessage == null || changeMessage.equals("")) {
             // The client sometimes sends empty messages, this is probably a bug
@@ -243,11 +262,7 @@ public class ServerRpcHandler implements Serializable {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
-        }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
+        byte[] messageHash = getMessageHash(changeMessage);
 
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
@@ -384,11 +399,60 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
+    /**
+     * Reads the message from the given reader. Called by
+     * {@link #handleRpc(UI, Reader, VaadinRequest)}, which passes a reader that
+     * also tells the length of the request body when it is known.
+     *
+     * @param reader
+     *            the reader to read the message from
+     * @return the message
+     * @throws IOException
+     *             if reading the message fails
+     */
     protected String getMessage(Reader reader) throws IOException {
+        return getMessage(reader, reader instanceof ContentLengthReader
+                ? ((ContentLengthReader) reader).contentLength
+                : -1);
+    }
 
-        StringBuilder sb = new StringBuilder(MAX_BUFFER_SIZE);
-        char[] buffer = new char[MAX_BUFFER_SIZE];
+    /**
+     * Reads the message from the given reader into a buffer sized according to
+     * the length of the request body.
+     *
+     * @param reader
+     *            the reader to read the message from
+     * @param contentLength
+     *            the length of the request body in bytes, or a non-positive
+     *            value if the length is not known
+     * @return the message
+     * @throws IOException
+     *             if reading the message fails
+     */
+    protected String getMessage(Reader reader, int contentLength)
+            throws IOException {
+        // The decoded message has at most as many chars as the body has bytes.
+        // One extra char lets the end of the stream be detected in the buffer.
+        int expectedLength = contentLength > 0
+                ? Math.min(contentLength, MAX_BUFFER_SIZE) + 1
+                : DEFAULT_BUFFER_SIZE;
+        char[] buffer = new char[expectedLength];
+
+        int length = 0;
+        while (length < buffer.length) {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                return new String(buffer, 0, length);
+            }
+            length += read;
+        }
 
+        // Longer than expected, continue reading into a growing builder
+        StringBuilder sb = new StringBuilder(length * 2);
+        sb.append(buffer, 0, length);
+        if (buffer.length < DEFAULT_BUFFER_SIZE) {
+            buffer = new char[DEFAULT_BUFFER_SIZE];
+        }
         while (true) {
             int read = reader.read(buffer);
             if (read == -1) {
@@ -400,6 +464,25 @@ public class ServerRpcHandler implements Serializable {
         return sb.toString();
     }
 
+    /*
+     * The hash is only compared to the hash of the previously processed
+     * message to tell a resent message from an unexpected one, so a fast
+     * non-cryptographic hash (64-bit FNV-1a) is sufficient.
+     */
+    private static byte[] getMessageHash(String message) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < message.length(); i++) {
+            hash ^= message.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            bytes[i] = (byte) hash;
+            hash >>>= Byte.SIZE;
+        }
+        return bytes;
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(ServerRpcHandler.class.getName());
     }
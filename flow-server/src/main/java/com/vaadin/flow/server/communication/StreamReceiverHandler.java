@@ -26,6 +26,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.fileupload.FileItemIterator;
 import org.apache.commons.fileupload.FileItemStream;
@@ -35,7 +36,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.NoInputStreamException;
 import com.vaadin.flow.server.NoOutputStreamException;
@@ -63,8 +68,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public class StreamReceiverHandler implements Serializable {
 
-    private static final int MAX_UPLOAD_BUFFER_SIZE = 4 * 1024;
-
     /* Minimum interval which will be used for streaming progress events. */
     public static final int DEFAULT_STREAMING_PROGRESS_EVENT_INTERVAL_MS = 500;
 
@@ -405,15 +408,18 @@ public class StreamReceiverHandler implements Serializable {
 
         OutputStream out = null;
         long totalBytes = 0;
+        ProgressReporter progress = null;
         StreamingStartEventImpl startedEvent = new StreamingStartEventImpl(
                 filename, type, contentLength);
         try {
             boolean listenProgress;
+            int bufferSize;
             session.lock();
             try {
                 streamVariable.streamingStarted(startedEvent);
                 out = streamVariable.getOutputStream();
                 listenProgress = streamVariable.listenProgress();
+                bufferSize = getUploadBufferSize(session);
             } finally {
                 session.unlock();
             }
@@ -428,27 +434,32 @@ public class StreamReceiverHandler implements Serializable {
                 throw new NoInputStreamException();
             }
 
-            final byte[] buffer = new byte[MAX_UPLOAD_BUFFER_SIZE];
-            long lastStreamingEvent = 0;
-            int bytesReadToBuffer;
+            if (listenProgress) {
+                progress = new ProgressReporter(session, streamVariable,
+                        startedEvent, getProgressEventInterval());
+            }
+
+            final byte[] buffer = new byte[bufferSize];
+            boolean endOfStream;
             do {
-                bytesReadToBuffer = in.read(buffer);
+                int bytesReadToBuffer = readToBuffer(in, buffer);
+                // The buffer is only filled partially at the end of the stream
+                endOfStream = bytesReadToBuffer < buffer.length;
                 if (bytesReadToBuffer > 0) {
                     out.write(buffer, 0, bytesReadToBuffer);
                     totalBytes += bytesReadToBuffer;
                 }
-                if (listenProgress) {
-                    StreamingProgressEventImpl progressEvent = new StreamingProgressEventImpl(
-                            filename, type, contentLength, totalBytes);
-
-                    lastStreamingEvent = updateProgress(session, streamVariable,
-                            progressEvent, lastStreamingEvent,
-                            bytesReadToBuffer);
+                if (progress != null) {
+                    if (endOfStream) {
+                        progress.finish(totalBytes);
+                    } else {
+                        progress.update(totalBytes);
+                    }
                 }
                 if (streamVariable.isInterrupted()) {
                     throw new UploadInterruptedException();
                 }
-            } while (bytesReadToBuffer > 0);
+            } while (!endOfStream);
 
             // upload successful
             out.close();
@@ -463,6 +474,7 @@ public class StreamReceiverHandler implements Serializable {
 
         } catch (UploadInterruptedException e) {
             // Download interrupted by application code
+            stopProgress(progress);
             tryToCloseStream(out);
             StreamVariable.StreamingErrorEvent event = new StreamingErrorEventImpl(
                     filename, type, contentLength, totalBytes, e);
@@ -475,6 +487,7 @@ public class StreamReceiverHandler implements Serializable {
             // Note, we are not throwing interrupted exception forward as it is
             // not a terminal level error like all other exception.
         } catch (final Exception e) {
+            stopProgress(progress);
             tryToCloseStream(out);
             session.lock();
             try {
@@ -491,23 +504,116 @@ public class StreamReceiverHandler implements Serializable {
         return startedEvent.isDisposed();
     }
 
-    private long updateProgress(VaadinSession session,
-            StreamVariable streamVariable,
-            StreamingProgressEventImpl progressEvent, long lastStreamingEvent,
-            int bytesReadToBuffer) {
-        long now = System.currentTimeMillis();
-        // to avoid excessive session locking and event storms,
-        // events are sent in intervals, or at the end of the file.
-        if (lastStreamingEvent + getProgressEventInterval() <= now
-                || bytesReadToBuffer <= 0) {
+    private static void stopProgress(ProgressReporter progress) {
+        if (progress != null) {
+            progress.stop();
+        }
+    }
+
+    private static int getUploadBufferSize(VaadinSession session) {
+        DeploymentConfiguration configuration = session.getConfiguration();
+        int size = configuration == null ? 0
+                : configuration.getUploadBufferSize();
+        return size > 0 ? size : Constants.UPLOAD_BUFFER_SIZE_DEFAULT;
+    }
+
+    /**
+     * Reads from the stream until the buffer is full or the stream ends, so
+     * that the receiver gets fewer and larger writes than the chunks in which
+     * the data arrives from the network.
+     */
+    private static int readToBuffer(InputStream in, byte[] buffer)
+            throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read <= 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Sends the progress events of an upload. Events during the upload are
+     * sent at most once per progress event interval through
+     * {@link UI#access(Command)}, so the uploading thread never waits for the
+     * session lock. If the session stays locked for longer than the interval,
+     * only the latest progress is sent once it is released. The event at the
+     * end of the upload is sent while holding the lock, before the upload is
+     * reported as finished.
+     */
+    private static class ProgressReporter implements Serializable {
+        private final VaadinSession session;
+        private final UI ui;
+        private final StreamVariable streamVariable;
+        private final StreamingStartEventImpl startedEvent;
+        private final int interval;
+
+        private final AtomicBoolean eventPending = new AtomicBoolean();
+        private long lastEventTime;
+        private volatile long bytesReceived;
+        private volatile boolean stopped;
+
+        private ProgressReporter(VaadinSession session,
+                StreamVariable streamVariable,
+                StreamingStartEventImpl startedEvent, int interval) {
+            this.session = session;
+            ui = UI.getCurrent();
+            this.streamVariable = streamVariable;
+            this.startedEvent = startedEvent;
+            this.interval = interval;
+        }
+
+        private void update(long totalBytes) {
+            bytesReceived = totalBytes;
+            long now = System.currentTimeMillis();
+            if (lastEventTime + interval > now) {
+                return;
+            }
+            lastEventTime = now;
+            if (eventPending.compareAndSet(false, true)) {
+                Command command = this::sendPendingEvent;
+                try {
+                    if (ui != null) {
+                        ui.access(command);
+                    } else {
+                        session.access(command);
+                    }
+                } catch (UIDetachedException e) {
+                    // Nobody to report the progress to, leave pending
+                    getLogger().debug("UI detached during upload", e);
+                }
+            }
+        }
+
+        private void sendPendingEvent() {
+            eventPending.set(false);
+            if (!stopped) {
+                streamVariable.onProgress(createEvent(bytesReceived));
+            }
+        }
+
+        private void finish(long totalBytes) {
+            stop();
             session.lock();
             try {
-                streamVariable.onProgress(progressEvent);
+                streamVariable.onProgress(createEvent(totalBytes));
             } finally {
                 session.unlock();
             }
         }
-        return now;
+
+        private void stop() {
+            stopped = true;
+        }
+
+        private StreamingProgressEventImpl createEvent(long totalBytes) {
+            return new StreamingProgressEventImpl(startedEvent.getFileName(),
+                    startedEvent.getMimeType(),
+                    startedEvent.getContentLength(), totalBytes);
+        }
     }
 
     /**
@@ -18,8 +18,10 @@ package com.vaadin.flow.server.communication;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 
@@ -81,12 +83,16 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         }
 
+        boolean streaming = session.getService().getDeploymentConfiguration()
+                .isUidlStreaming();
         StringWriter stringWriter = new StringWriter();
 
         try {
             getRpcHandler(session).handleRpc(uI, request.getReader(), request);
 
-            writeUidl(uI, stringWriter);
+            if (!streaming) {
+                writeUidl(uI, stringWriter);
+            }
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
             // Refresh on client side
@@ -102,7 +108,11 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             stringWriter.close();
         }
 
-        commitJsonResponse(response, stringWriter.toString());
+        if (streaming) {
+            streamUidl(uI, response);
+        } else {
+            commitJsonResponse(response, stringWriter.toString());
+        }
         return true;
     }
 
@@ -120,6 +130,26 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         writer.write(responseString);
     }
 
+    private static void streamUidl(UI ui, VaadinResponse response)
+            throws IOException {
+        setJsonResponseHeaders(response);
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), UTF_8));
+        try {
+            // some dirt to prevent cross site scripting
+            writer.write("for(;;);[");
+            new UidlWriter().writeUidl(ui, false, writer);
+            writer.write(']');
+        } catch (JsonException e) {
+            // The response has already been partially written so it's too late
+            // to ask the client to refresh
+            getLogger().error("Error writing JSON to response", e);
+        }
+        // NOTE GateIn requires the buffers to be flushed to work
+        writer.flush();
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlRequestHandler.class.getName());
     }
@@ -167,11 +197,7 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
      */
     public static void commitJsonResponse(VaadinResponse response, String json)
             throws IOException {
-        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
-
-        // Ensure that the browser does not cache UIDL responses.
-        // iOS 6 Safari requires this (#9732)
-        response.setHeader("Cache-Control", "no-cache");
+        setJsonResponseHeaders(response);
 
         byte[] b = json.getBytes(UTF_8);
         response.setContentLength(b.length);
@@ -181,4 +207,12 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         // NOTE GateIn requires the buffers to be flushed to work
         outputStream.flush();
     }
+
+    private static void setJsonResponseHeaders(VaadinResponse response) {
+        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+
+        // Ensure that the browser does not cache UIDL responses.
+        // iOS 6 Safari requires this (#9732)
+        response.setHeader("Cache-Control", "no-cache");
+    }
 }
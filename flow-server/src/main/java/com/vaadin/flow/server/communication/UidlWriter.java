@@ -19,6 +19,8 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -68,6 +70,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Serializes pending server-side changes to UI state to JSON. This includes
@@ -80,6 +83,8 @@ import elemental.json.JsonValue;
 public class UidlWriter implements Serializable {
     private static final String COULD_NOT_READ_URL_CONTENTS_ERROR_MESSAGE = "Could not read url %s contents";
 
+    private static final String CHANGES = "changes";
+
     /**
      * Provides context information for the resolve operations.
      */
@@ -134,6 +139,117 @@ public class UidlWriter implements Serializable {
 
     }
 
+    /**
+     * Carries an I/O failure of the response builder out of the change
+     * collector, so that it can be told apart from unchecked exceptions thrown
+     * by other code while collecting changes.
+     */
+    private static class ResponseWriteException extends RuntimeException {
+        private ResponseWriteException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * Receives the parts of a UIDL response in the order they are produced.
+     */
+    private interface ResponseBuilder extends Serializable {
+        void put(String key, JsonValue value) throws IOException;
+
+        void addChange(JsonObject change) throws IOException;
+
+        void endChanges() throws IOException;
+    }
+
+    /**
+     * Builds the response as a JSON object.
+     */
+    private static class JsonObjectBuilder implements ResponseBuilder {
+        private final JsonObject response = Json.createObject();
+        private final JsonArray stateChanges = Json.createArray();
+
+        @Override
+        public void put(String key, JsonValue value) {
+            response.put(key, value);
+        }
+
+        @Override
+        public void addChange(JsonObject change) {
+            stateChanges.set(stateChanges.length(), change);
+        }
+
+        @Override
+        public void endChanges() {
+            if (stateChanges.length() != 0) {
+                response.put(CHANGES, stateChanges);
+            }
+        }
+    }
+
+    /**
+     * Writes the response directly as JSON text. Changes are written as soon
+     * as they are collected so that the full response never needs to be held
+     * in memory.
+     */
+    private static class StreamingBuilder implements ResponseBuilder {
+        private final transient Writer writer;
+        private boolean hasEntries;
+        private boolean hasChanges;
+        private boolean changesOpen;
+
+        private StreamingBuilder(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write('{');
+        }
+
+        @Override
+        public void put(String key, JsonValue value) throws IOException {
+            endChanges();
+            writeKey(key);
+            writer.write(value.toJson());
+        }
+
+        @Override
+        public void addChange(JsonObject change) throws IOException {
+            if (!hasChanges) {
+                writeKey(CHANGES);
+                writer.write('[');
+                hasChanges = true;
+                changesOpen = true;
+            } else {
+                writer.write(',');
+            }
+            writer.write(change.toJson());
+        }
+
+        @Override
+        public void endChanges() throws IOException {
+            if (changesOpen) {
+                writer.write(']');
+                changesOpen = false;
+            }
+        }
+
+        private void writeKey(String key) throws IOException {
+            if (hasEntries) {
+                writer.write(',');
+            }
+            hasEntries = true;
+            writer.write(JsonUtil.quote(key));
+            writer.write(':');
+        }
+
+        private void end() throws IOException {
+            endChanges();
+            writer.write('}');
+        }
+    }
+
     /**
      * Creates a JSON object containing all pending changes to the given UI.
      *
@@ -145,8 +261,45 @@ public class UidlWriter implements Serializable {
      * @return JSON object containing the UIDL response
      */
     public JsonObject createUidl(UI ui, boolean async) {
-        JsonObject response = Json.createObject();
+        JsonObjectBuilder builder = new JsonObjectBuilder();
+        try {
+            writeResponse(ui, async, builder);
+        } catch (IOException e) {
+            // The builder doesn't do any I/O
+            throw new UncheckedIOException(e);
+        }
+        return builder.response;
+    }
 
+    /**
+     * Writes all pending changes to the given UI as JSON to the given writer.
+     * <p>
+     * The written JSON represents the same data as the object returned by
+     * {@link #createUidl(UI, boolean)}, but the state changes are written as
+     * they are collected instead of building the whole response in memory
+     * first. This keeps the memory usage low for large responses, but nothing
+     * can be written instead of the response if writing fails half way.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message.
+     * @param writer
+     *            the writer to write the JSON to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    public void writeUidl(UI ui, boolean async, Writer writer)
+            throws IOException {
+        StreamingBuilder builder = new StreamingBuilder(
+                Objects.requireNonNull(writer));
+        writeResponse(ui, async, builder);
+        builder.end();
+    }
+
+    private void writeResponse(UI ui, boolean async, ResponseBuilder response)
+            throws IOException {
         UIInternals uiInternals = ui.getInternals();
 
         VaadinSession session = ui.getSession();
@@ -162,11 +315,11 @@ public class UidlWriter implements Serializable {
         int syncId = service.getDeploymentConfiguration().isSyncIdCheckEnabled()
                 ? uiInternals.getServerSyncId() : -1;
 
-        response.put(ApplicationConstants.SERVER_SYNC_ID, syncId);
+        response.put(ApplicationConstants.SERVER_SYNC_ID, Json.create(syncId));
         int nextClientToServerMessageId = uiInternals
                 .getLastProcessedClientToServerId() + 1;
         response.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
-                nextClientToServerMessageId);
+                Json.create(nextClientToServerMessageId));
 
         SystemMessages messages = ui.getSession().getService()
                 .getSystemMessages(ui.getLocale(), null);
@@ -177,9 +330,7 @@ public class UidlWriter implements Serializable {
             response.put("meta", meta);
         }
 
-        JsonArray stateChanges = Json.createArray();
-
-        encodeChanges(ui, stateChanges);
+        encodeChanges(ui, response);
 
         populateDependencies(response, uiInternals.getDependencyList(),
                 new ResolveContext(service, session.getBrowser(), null));
@@ -188,9 +339,7 @@ public class UidlWriter implements Serializable {
             response.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
         }
-        if (stateChanges.length() != 0) {
-            response.put("changes", stateChanges);
-        }
+        response.endChanges();
 
         List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
                 .dumpPendingJavaScriptInvocations();
@@ -203,11 +352,11 @@ public class UidlWriter implements Serializable {
             response.put("timings", createPerformanceData(ui));
         }
         uiInternals.incrementServerId();
-        return response;
     }
 
-    private static void populateDependencies(JsonObject response,
-            DependencyList dependencyList, ResolveContext context) {
+    private static void populateDependencies(ResponseBuilder response,
+            DependencyList dependencyList, ResolveContext context)
+            throws IOException {
         Collection<Dependency> pendingSendToClient = dependencyList
                 .getPendingSendToClient();
 
@@ -221,9 +370,10 @@ public class UidlWriter implements Serializable {
         }
 
         if (!pendingSendToClient.isEmpty()) {
-            groupDependenciesByLoadMode(pendingSendToClient, context)
-                    .forEach((loadMode, dependencies) -> response
-                            .put(loadMode.name(), dependencies));
+            for (Map.Entry<LoadMode, JsonArray> entry : groupDependenciesByLoadMode(
+                    pendingSendToClient, context).entrySet()) {
+                response.put(entry.getKey().name(), entry.getValue());
+            }
         }
         dependencyList.clearPendingSendToClient();
     }
@@ -381,28 +531,37 @@ public class UidlWriter implements Serializable {
      *
      * @param ui
      *            the UI
-     * @param stateChanges
-     *            a JSON array to put state changes into
+     * @param response
+     *            the response to add state changes to
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private void encodeChanges(UI ui, ResponseBuilder response)
+            throws IOException {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
         stateTree.runExecutionsBeforeClientResponse();
 
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
-        stateTree.collectChanges(change -> {
-            if (attachesComponent(change)) {
-                ComponentMapping.getComponent(change.getNode())
-                        .ifPresent(component -> addComponentHierarchy(ui,
-                                componentsWithDependencies, component));
-            }
-
-            // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
-        });
+        try {
+            stateTree.collectChanges(change -> {
+                if (attachesComponent(change)) {
+                    ComponentMapping.getComponent(change.getNode())
+                            .ifPresent(component -> addComponentHierarchy(ui,
+                                    componentsWithDependencies, component));
+                }
+
+                // Encode the actual change
+                try {
+                    response.addChange(
+                            change.toJson(uiInternals.getConstantPool()));
+                } catch (IOException e) {
+                    throw new ResponseWriteException(e);
+                }
+            });
+        } catch (ResponseWriteException e) {
+            throw e.getCause();
+        }
 
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
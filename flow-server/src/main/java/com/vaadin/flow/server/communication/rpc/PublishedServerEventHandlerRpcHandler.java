@@ -15,13 +15,17 @@
  */
 package com.vaadin.flow.server.communication.rpc;
 
+import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -34,7 +38,9 @@ import com.vaadin.flow.component.Composite;
 import com.vaadin.flow.component.polymertemplate.EventHandler;
 import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
 import com.vaadin.flow.dom.DisabledUpdateMode;
+import com.vaadin.flow.internal.MethodInvoker;
 import com.vaadin.flow.internal.ReflectTools;
+import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.ClientCallableHandlers;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
@@ -63,6 +69,42 @@ public class PublishedServerEventHandlerRpcHandler
 
     private static final Collection<RpcDecoder> DECODERS = loadDecoders();
 
+    private static final ReflectionCache<Component, Map<String, HandlerMethod>> HANDLER_METHODS = new ReflectionCache<>(
+            PublishedServerEventHandlerRpcHandler::collectHandlerMethods);
+
+    /**
+     * An event handler method resolved for a component class, together with
+     * the parameter information needed to decode the arguments of each
+     * invocation.
+     */
+    private static final class HandlerMethod implements Serializable {
+        /**
+         * Marker for a method name shared by several event handler methods of
+         * the same class.
+         */
+        private static final HandlerMethod AMBIGUOUS = new HandlerMethod();
+
+        private final Method method;
+        private final MethodInvoker invoker;
+        private final Class<?>[] parameterTypes;
+        private final Type[] genericParameterTypes;
+
+        private HandlerMethod() {
+            method = null;
+            invoker = null;
+            parameterTypes = null;
+            genericParameterTypes = null;
+        }
+
+        private HandlerMethod(Method method) {
+            method.setAccessible(true);
+            this.method = method;
+            invoker = MethodInvoker.get(method);
+            parameterTypes = method.getParameterTypes();
+            genericParameterTypes = method.getGenericParameterTypes();
+        }
+    }
+
     @Override
     public String getRpcType() {
         return JsonConstants.RPC_PUBLISHED_SERVER_EVENT_HANDLER;
@@ -124,7 +166,8 @@ public class PublishedServerEventHandlerRpcHandler
     static void invokeMethod(Component instance, Class<?> clazz,
             String methodName, JsonArray args) {
         assert instance != null;
-        Optional<Method> method = findMethod(instance, clazz, methodName);
+        Optional<HandlerMethod> method = findMethod(instance, clazz,
+                methodName);
         if (method.isPresent()) {
             invokeMethod(instance, method.get(), args);
         } else if (instance instanceof Composite) {
@@ -139,32 +182,52 @@ public class PublishedServerEventHandlerRpcHandler
         }
     }
 
-    private static Optional<Method> findMethod(Component instance,
+    @SuppressWarnings("unchecked")
+    private static Optional<HandlerMethod> findMethod(Component instance,
             Class<?> clazz, String methodName) {
-        List<Method> methods = Stream.of(clazz.getDeclaredMethods())
-                .filter(method -> methodName.equals(method.getName()))
-                .filter(method -> method.isAnnotationPresent(EventHandler.class)
-                        || method.isAnnotationPresent(ClientCallable.class))
-                .collect(Collectors.toList());
-        if (methods.size() > 1) {
+        HandlerMethod method = HANDLER_METHODS
+                .get((Class<? extends Component>) clazz).get(methodName);
+        if (method == HandlerMethod.AMBIGUOUS) {
             String msg = String.format("Class '%s' contains "
                     + "several event handler method with the same name '%s'",
                     instance.getClass().getName(), methodName);
             throw new IllegalStateException(msg);
-        } else if (methods.size() == 1) {
-            return Optional.of(methods.get(0));
-        } else if (!Component.class.equals(clazz)) {
-            return findMethod(instance, clazz.getSuperclass(), methodName);
-        } else {
-            return Optional.empty();
         }
+        return Optional.ofNullable(method);
+    }
+
+    /**
+     * Collects the event handler methods of a component class by name. A
+     * method declared in a subclass hides the methods with the same name in
+     * its super classes.
+     */
+    private static Map<String, HandlerMethod> collectHandlerMethods(
+            Class<Component> type) {
+        Map<String, HandlerMethod> methods = new HashMap<>();
+        Class<?> clazz = type;
+        while (clazz != null) {
+            Map<String, List<Method>> declared = Stream
+                    .of(clazz.getDeclaredMethods())
+                    .filter(method -> method
+                            .isAnnotationPresent(EventHandler.class)
+                            || method.isAnnotationPresent(ClientCallable.class))
+                    .collect(Collectors.groupingBy(Method::getName));
+            declared.forEach((name, candidates) -> methods.putIfAbsent(name,
+                    candidates.size() == 1 ? new HandlerMethod(candidates.get(0))
+                            : HandlerMethod.AMBIGUOUS));
+            if (Component.class.equals(clazz)) {
+                break;
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return methods.isEmpty() ? Collections.emptyMap() : methods;
     }
 
-    private static void invokeMethod(Component instance, Method method,
+    private static void invokeMethod(Component instance, HandlerMethod method,
             JsonArray args) {
         try {
-            method.setAccessible(true);
-            method.invoke(instance, decodeArgs(instance, method, args));
+            method.invoker.invoke(instance,
+                    decodeArgs(instance, method, args));
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         } catch (InvocationTargetException e) {
@@ -175,9 +238,10 @@ public class PublishedServerEventHandlerRpcHandler
         }
     }
 
-    private static Object[] decodeArgs(Component instance, Method method,
-            JsonArray argsFromClient) {
-        int methodArgs = method.getParameterCount();
+    private static Object[] decodeArgs(Component instance,
+            HandlerMethod handler, JsonArray argsFromClient) {
+        Method method = handler.method;
+        int methodArgs = handler.parameterTypes.length;
         int clientValuesCount = argsFromClient.length();
         JsonArray argValues;
         if (method.isVarArgs()) {
@@ -206,13 +270,12 @@ public class PublishedServerEventHandlerRpcHandler
                 throw new IllegalArgumentException(msg);
             }
         }
-        List<Object> decoded = new ArrayList<>(method.getParameterCount());
-        Class<?>[] methodParameterTypes = method.getParameterTypes();
+        Object[] decoded = new Object[methodArgs];
         for (int i = 0; i < argValues.length(); i++) {
-            Class<?> type = methodParameterTypes[i];
-            decoded.add(decodeArg(instance, method, type, i, argValues.get(i)));
+            decoded[i] = decodeArg(instance, handler,
+                    handler.parameterTypes[i], i, argValues.get(i));
         }
-        return decoded.toArray(new Object[method.getParameterCount()]);
+        return decoded;
     }
 
     private static JsonArray unwrapVarArgs(JsonArray argsFromClient,
@@ -240,8 +303,9 @@ public class PublishedServerEventHandlerRpcHandler
         return result;
     }
 
-    private static Object decodeArg(Component instance, Method method,
+    private static Object decodeArg(Component instance, HandlerMethod handler,
             Class<?> type, int index, JsonValue argValue) {
+        Method method = handler.method;
         // come up with method to know that it's an id and should be gotten from
         // the model
         assert argValue != null;
@@ -255,14 +319,14 @@ public class PublishedServerEventHandlerRpcHandler
                     method.getDeclaringClass().getName());
             throw new IllegalArgumentException(msg);
         } else if (type.isArray()) {
-            return decodeArray(method, type, index, argValue);
+            return decodeArray(handler, type, index, argValue);
         } else {
             Class<?> convertedType = ReflectTools.convertPrimitiveType(type);
 
             if (isTemplateModelValue(instance, argValue, convertedType)) {
                 return getTemplateItem((PolymerTemplate<?>) instance,
                         (JsonObject) argValue,
-                        method.getGenericParameterTypes()[index]);
+                        handler.genericParameterTypes[index]);
             }
 
             Optional<RpcDecoder> decoder = getDecoder(argValue, convertedType);
@@ -283,9 +347,12 @@ public class PublishedServerEventHandlerRpcHandler
 
     private static Optional<RpcDecoder> getDecoder(JsonValue value,
             Class<?> type) {
-        return DECODERS.stream()
-                .filter(decoder -> decoder.isApplicable(value, type))
-                .findFirst();
+        for (RpcDecoder decoder : DECODERS) {
+            if (decoder.isApplicable(value, type)) {
+                return Optional.of(decoder);
+            }
+        }
+        return Optional.empty();
     }
 
     private static boolean isTemplateModelValue(Component instance,
@@ -307,8 +374,9 @@ public class PublishedServerEventHandlerRpcHandler
         return propertyType.modelToApplication(node);
     }
 
-    private static Object decodeArray(Method method, Class<?> type, int index,
-            JsonValue argValue) {
+    private static Object decodeArray(HandlerMethod handler, Class<?> type,
+            int index, JsonValue argValue) {
+        Method method = handler.method;
         if (argValue.getType() != JsonType.ARRAY) {
             String msg = String.format("Class '%s' has the method '%s' "
                     + "whose parameter %d refers to the array type '%s' "
@@ -321,8 +389,8 @@ public class PublishedServerEventHandlerRpcHandler
         JsonArray array = (JsonArray) argValue;
         Object result = Array.newInstance(componentType, array.length());
         for (int i = 0; i < array.length(); i++) {
-            Array.set(result, i, decodeArg(null, method, componentType, index,
-                    array.get(i)));
+            Array.set(result, i, decodeArg(null, handler, componentType,
+                    index, array.get(i)));
         }
         return result;
     }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.vaadin.flow.component.polymertemplate.BundleParser;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+
+import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_STATISTICS_JSON;
+import static com.vaadin.flow.server.Constants.STATISTICS_JSON_DEFAULT;
+import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
+
+/**
+ * The parts of the statistics file generated by webpack that are needed at
+ * runtime: the bundle chunks to load in the bootstrap page and the sources of
+ * the bundled modules.
+ * <p>
+ * The statistics file is parsed once per application in production mode. In
+ * development mode it is parsed again only when webpack has rebuilt the
+ * bundle.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 2.0
+ */
+public final class BundleManifest implements Serializable {
+
+    private static final String NO_SOURCE = "";
+
+    private final String hash;
+    private final Map<String, String> chunks;
+    private final Map<String, String> modules;
+    private final ConcurrentMap<String, String> sourcesByFile = new ConcurrentHashMap<>();
+
+    /**
+     * The manifests of an application keyed by the location of the statistics
+     * file.
+     */
+    private static final class Manifests implements Serializable {
+        private final ConcurrentMap<String, BundleManifest> manifests = new ConcurrentHashMap<>();
+    }
+
+    private BundleManifest(String hash, JsonObject statistics) {
+        this.hash = hash;
+
+        Map<String, String> chunkMap = new LinkedHashMap<>();
+        if (statistics.hasKey("assetsByChunkName")) {
+            JsonObject assets = statistics.getObject("assetsByChunkName");
+            for (String key : assets.keys()) {
+                chunkMap.put(key, assets.getString(key));
+            }
+        }
+        chunks = Collections.unmodifiableMap(chunkMap);
+
+        Map<String, String> moduleMap = new LinkedHashMap<>();
+        collectModules(statistics, moduleMap);
+        modules = Collections.unmodifiableMap(moduleMap);
+    }
+
+    /**
+     * Parses a manifest from the contents of a webpack statistics file.
+     *
+     * @param fileContents
+     *            the content of the statistics file, not <code>null</code>
+     * @return the parsed manifest, not <code>null</code>
+     */
+    public static BundleManifest parse(String fileContents) {
+        return new BundleManifest(
+                BundleParser.getHashFromStatistics(fileContents),
+                Json.parse(fileContents));
+    }
+
+    /**
+     * Gets the manifest of the bundle used by the given service.
+     * <p>
+     * In production mode the statistics file is only read the first time the
+     * manifest is requested. In development mode it is read every time, but
+     * parsed again only if its hash has changed.
+     *
+     * @param service
+     *            the vaadin service
+     * @return the manifest, or <code>null</code> if the statistics file is not
+     *         found
+     * @throws IOException
+     *             on error reading the statistics file
+     */
+    public static BundleManifest getInstance(VaadinService service)
+            throws IOException {
+        DeploymentConfiguration config = service.getDeploymentConfiguration();
+        String stats = config.getStringProperty(
+                SERVLET_PARAMETER_STATISTICS_JSON,
+                VAADIN_SERVLET_RESOURCES + STATISTICS_JSON_DEFAULT);
+
+        VaadinContext context = service.getContext();
+        Manifests cache = context == null ? null
+                : context.getAttribute(Manifests.class, Manifests::new);
+        BundleManifest manifest = cache == null ? null
+                : cache.manifests.get(stats);
+        if (manifest != null && config.isProductionMode()) {
+            return manifest;
+        }
+
+        String content = FrontendUtils.getStatsContent(service);
+        if (content == null) {
+            return null;
+        }
+        if (manifest == null || !manifest.hash
+                .equals(BundleParser.getHashFromStatistics(content))) {
+            manifest = parse(content);
+            if (cache != null) {
+                cache.manifests.put(stats, manifest);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Gets the hash of the bundle, as reported by webpack.
+     *
+     * @return the hash of the bundle
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Gets the files of the bundle chunks keyed by the chunk names, in the
+     * order listed by webpack.
+     *
+     * @return an unmodifiable map of chunk files by chunk name
+     */
+    public Map<String, String> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets the source of the bundled module for the given file.
+     *
+     * @param fileName
+     *            name of the file to get the source for
+     * @return the source of the module, or <code>null</code> if the bundle
+     *         contains no module for the file
+     * @see BundleParser#getSourceFromStatistics(String, JsonObject)
+     */
+    public String getModuleSource(String fileName) {
+        String source = sourcesByFile.computeIfAbsent(fileName,
+                this::findModuleSource);
+        return NO_SOURCE.equals(source) ? null : source;
+    }
+
+    private String findModuleSource(String fileName) {
+        for (Map.Entry<String, String> module : modules.entrySet()) {
+            if (BundleParser.isModuleFor(module.getKey(), fileName)) {
+                return module.getValue();
+            }
+        }
+        return NO_SOURCE;
+    }
+
+    // Lists the modules in the order BundleParser searches them, keeping only
+    // the first module of each name since later ones can never be found
+    private static void collectModules(JsonObject module,
+            Map<String, String> moduleMap) {
+        collectModules(module, "modules", moduleMap);
+        collectModules(module, "chunks", moduleMap);
+        if (isNonEmptyString(module, "name")
+                && isNonEmptyString(module, "source")) {
+            moduleMap.putIfAbsent(module.getString("name"),
+                    module.getString("source"));
+        }
+    }
+
+    private static void collectModules(JsonObject module, String key,
+            Map<String, String> moduleMap) {
+        if (module.hasKey(key)
+                && module.get(key).getType() == JsonType.ARRAY) {
+            JsonArray array = module.getArray(key);
+            for (int i = 0; i < array.length(); i++) {
+                if (array.get(i).getType() == JsonType.OBJECT) {
+                    collectModules(array.getObject(i), moduleMap);
+                }
+            }
+        }
+    }
+
+    private static boolean isNonEmptyString(JsonObject object, String key) {
+        return object.hasKey(key)
+                && object.get(key).getType() == JsonType.STRING
+                && !object.getString(key).isEmpty();
+    }
+}
@@ -34,6 +34,7 @@ import java.util.stream.Stream;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.internal.MethodInvoker;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
@@ -444,7 +445,7 @@ public class BeanModelType<T> implements ComplexModelType<T> {
             }
 
             try {
-                Object value = getter.invoke(bean);
+                Object value = MethodInvoker.get(getter).invoke(bean);
                 values.put(propertyName, value);
             } catch (Exception e) {
                 throw new IllegalArgumentException(
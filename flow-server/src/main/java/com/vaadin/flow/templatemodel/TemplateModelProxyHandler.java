@@ -17,7 +17,9 @@ package com.vaadin.flow.templatemodel;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -117,8 +119,27 @@ public class TemplateModelProxyHandler implements Serializable {
     private static final ReflectionCache<Object, BiFunction<StateNode, BeanModelType<?>, Object>> proxyConstructors = new ReflectionCache<>(
             TemplateModelProxyHandler::createProxyConstructor);
 
+    private static final ReflectionCache<Object, Map<Method, PropertyAccessor>> propertyAccessors = new ReflectionCache<>(
+            type -> new ConcurrentHashMap<>());
+
     private static final TemplateModelProxyHandler proxyHandler = new TemplateModelProxyHandler();
 
+    /**
+     * The property name and kind of a proxied method, resolved once per method
+     * instead of on every invocation.
+     */
+    private static final class PropertyAccessor implements Serializable {
+        private final String propertyName;
+        private final boolean getter;
+        private final boolean setter;
+
+        private PropertyAccessor(Method method) {
+            propertyName = ReflectTools.getPropertyName(method);
+            getter = ReflectTools.isGetter(method);
+            setter = !getter && ReflectTools.isSetter(method);
+        }
+    }
+
     private TemplateModelProxyHandler() {
         // Singleton
     }
@@ -144,7 +165,10 @@ public class TemplateModelProxyHandler implements Serializable {
     @SuppressWarnings("static-method")
     public Object intercept(@This Object target, @Origin Method method,
             @AllArguments Object[] args) {
-        String propertyName = ReflectTools.getPropertyName(method);
+        PropertyAccessor accessor = propertyAccessors
+                .get(method.getDeclaringClass())
+                .computeIfAbsent(method, PropertyAccessor::new);
+        String propertyName = accessor.propertyName;
 
         BeanModelType<?> modelType = getModelTypeForProxy(target);
 
@@ -159,9 +183,9 @@ public class TemplateModelProxyHandler implements Serializable {
         ElementPropertyMap modelMap = ElementPropertyMap
                 .getModel(getStateNodeForProxy(target));
 
-        if (ReflectTools.isGetter(method)) {
+        if (accessor.getter) {
             return handleGetter(modelMap, propertyName, propertyType);
-        } else if (ReflectTools.isSetter(method)) {
+        } else if (accessor.setter) {
             Object value = args[0];
             handleSetter(modelMap, propertyName, propertyType, value);
             return null;
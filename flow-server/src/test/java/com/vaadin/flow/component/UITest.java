@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.CoreMatchers;
@@ -46,6 +47,7 @@ import com.vaadin.flow.router.Router;
 import com.vaadin.flow.router.internal.AfterNavigationHandler;
 import com.vaadin.flow.router.internal.BeforeEnterHandler;
 import com.vaadin.flow.router.internal.BeforeLeaveHandler;
+import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.InvalidRouteConfigurationException;
 import com.vaadin.flow.server.MockServletConfig;
 import com.vaadin.flow.server.MockVaadinServletService;
@@ -55,10 +57,13 @@ import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServlet;
 import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
 import com.vaadin.tests.util.MockUI;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -808,4 +813,78 @@ public class UITest {
                 "getCsrfToken() should always return the same value for the same UI",
                 token1, token2);
     }
+
+    private static VaadinSession createAccessQueueSession() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_UI_ACCESS_QUEUE, "true");
+        return new MockVaadinSession(
+                new MockVaadinServletService(configuration));
+    }
+
+    @Test
+    public void accessQueueEnabled_unlockedSession_commandIsRun() {
+        UI ui = new MockUI(createAccessQueueSession());
+        CurrentInstance.clearAll();
+        AtomicInteger runCount = new AtomicInteger();
+
+        Future<Void> future = ui.access(() -> {
+            assertSame("Current UI should be defined", ui, UI.getCurrent());
+            runCount.incrementAndGet();
+        });
+
+        assertEquals("Task should have run once", 1, runCount.get());
+        assertTrue(future.isDone());
+        assertTrue(ui.getInternals().getPendingAccessQueue().isEmpty());
+    }
+
+    @Test
+    public void accessQueueEnabled_manyCommands_otherUINotDelayed() {
+        VaadinSession session = createAccessQueueSession();
+        UI busyUI = new MockUI(session);
+        UI otherUI = new MockUI(session);
+        CurrentInstance.clearAll();
+        List<String> runOrder = new ArrayList<>();
+
+        session.lock();
+        for (int i = 0; i < 40; i++) {
+            String name = "busy" + i;
+            busyUI.access(() -> runOrder.add(name));
+        }
+        Future<Void> future = otherUI.access(() -> runOrder.add("other"));
+
+        assertEquals("Only one task per UI should be in the session queue", 2,
+                session.getPendingAccessQueue().size());
+        assertTrue(runOrder.isEmpty());
+        assertFalse(future.isDone());
+
+        session.unlock();
+
+        assertEquals(41, runOrder.size());
+        assertTrue("Other UI should not wait for all tasks of the busy UI",
+                runOrder.indexOf("other") < 20);
+        runOrder.remove("other");
+        for (int i = 0; i < 40; i++) {
+            assertEquals("busy" + i, runOrder.get(i));
+        }
+        assertTrue(future.isDone());
+        assertTrue(session.getPendingAccessQueue().isEmpty());
+    }
+
+    @Test
+    public void accessQueueEnabled_cancelledCommand_notRun() {
+        VaadinSession session = createAccessQueueSession();
+        UI ui = new MockUI(session);
+        CurrentInstance.clearAll();
+        AtomicInteger runCount = new AtomicInteger();
+
+        session.lock();
+        Future<Void> future = ui.access(runCount::incrementAndGet);
+        ui.access(runCount::incrementAndGet);
+        future.cancel(false);
+        session.unlock();
+
+        assertEquals("Only the second task should have run", 1,
+                runCount.get());
+    }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodInvokerTest {
+
+    public static class Bean {
+        private String name;
+        private long count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public String join(String separator, String... parts) {
+            return String.join(separator, parts);
+        }
+
+        public static int sum(int a, int b, int c) {
+            return a + b + c;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        private String secret() {
+            return "secret";
+        }
+    }
+
+    private static Method getMethod(String name) {
+        for (Method method : Bean.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    private static Object invoke(String name, Object target, Object... args)
+            throws Exception {
+        return MethodInvoker.get(getMethod(name)).invoke(target, args);
+    }
+
+    @Test
+    public void get_sameMethod_sameInvoker() {
+        Assert.assertSame(MethodInvoker.get(getMethod("getName")),
+                MethodInvoker.get(getMethod("getName")));
+    }
+
+    @Test
+    public void invoke_getterAndSetter() throws Exception {
+        Bean bean = new Bean();
+
+        Assert.assertNull(invoke("setName", bean, "foo"));
+        Assert.assertEquals("foo", invoke("getName", bean));
+        Assert.assertEquals("foo", invoke("getName", bean, (Object[]) null));
+    }
+
+    @Test
+    public void invoke_severalArgumentsAndVarArgs() throws Exception {
+        Assert.assertEquals(6, invoke("sum", null, 1, 2, 3));
+        Assert.assertEquals("a-b", invoke("join", new Bean(), "-",
+                new String[] { "a", "b" }));
+    }
+
+    @Test
+    public void invoke_primitiveArgumentWidened() throws Exception {
+        Bean bean = new Bean();
+
+        invoke("setCount", bean, Integer.valueOf(5));
+        Assert.assertEquals(5L, bean.count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invoke_wrongArgumentType_throws() throws Exception {
+        invoke("setName", new Bean(), Integer.valueOf(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invoke_nullPrimitiveArgument_throws() throws Exception {
+        invoke("setCount", new Bean(), (Object) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invoke_wrongArgumentCount_throws() throws Exception {
+        invoke("setName", new Bean());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invoke_wrongTarget_throws() throws Exception {
+        invoke("getName", "foo");
+    }
+
+    @Test
+    public void invoke_methodThrows_wrappedInInvocationTargetException()
+            throws Exception {
+        try {
+            invoke("fail", new Bean());
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertEquals(IllegalStateException.class,
+                    e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void invoke_privateMethodMadeAccessible() throws Exception {
+        Method method = getMethod("secret");
+        method.setAccessible(true);
+
+        Assert.assertEquals("secret",
+                MethodInvoker.get(method).invoke(new Bean()));
+    }
+
+    @Test
+    public void invoke_inaccessiblePrivateMethod_accessibilityNotChanged()
+            throws Exception {
+        Method method = getMethod("secret");
+        MethodInvoker invoker = MethodInvoker.get(method);
+
+        Assert.assertFalse(method.isAccessible());
+        try {
+            invoker.invoke(new Bean());
+            Assert.fail();
+        } catch (IllegalAccessException e) {
+            // Same as Method.invoke
+        }
+    }
+}
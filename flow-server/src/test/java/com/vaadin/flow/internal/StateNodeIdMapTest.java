@@ -0,0 +1,107 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.nodefeature.ElementData;
+
+public class StateNodeIdMapTest {
+
+    private StateNodeIdMap map = new StateNodeIdMap();
+
+    @Test
+    public void put_get_remove() {
+        StateNode node = new StateNode(ElementData.class);
+
+        Assert.assertNull(map.put(1, node));
+        Assert.assertSame(node, map.get(1));
+        Assert.assertTrue(map.containsKey(1));
+        Assert.assertEquals(1, map.size());
+
+        Assert.assertSame(node, map.remove(1));
+        Assert.assertNull(map.get(1));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.remove(1));
+    }
+
+    @Test
+    public void put_replacesExistingNode() {
+        StateNode node1 = new StateNode(ElementData.class);
+        StateNode node2 = new StateNode(ElementData.class);
+
+        map.put(5, node1);
+
+        Assert.assertSame(node1, map.put(5, node2));
+        Assert.assertSame(node2, map.get(5));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void get_nonPositiveId_null() {
+        Assert.assertNull(map.get(0));
+        Assert.assertNull(map.get(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void put_nonPositiveId_throws() {
+        map.put(0, new StateNode(ElementData.class));
+    }
+
+    @Test
+    public void randomOperations_sameResultAsHashMap() {
+        Map<Integer, StateNode> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            // Narrow id range to get plenty of collisions and removals
+            int id = 1 + random.nextInt(i < 50000 ? 5000 : 200);
+            if (random.nextInt(3) == 0) {
+                Assert.assertSame(expected.remove(id), map.remove(id));
+            } else {
+                StateNode node = new StateNode(ElementData.class);
+                Assert.assertSame(expected.put(id, node), map.put(id, node));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        for (int id = 1; id <= 5000; id++) {
+            Assert.assertSame(expected.get(id), map.get(id));
+        }
+
+        for (int id = 1; id <= 5000; id++) {
+            Assert.assertSame(expected.remove(id), map.remove(id));
+        }
+        Assert.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void serializable() {
+        map.put(3, new StateNode(ElementData.class));
+
+        StateNodeIdMap copy = SerializationUtils.roundtrip(map);
+
+        Assert.assertEquals(1, copy.size());
+        Assert.assertNotNull(copy.get(3));
+    }
+}
@@ -191,6 +191,48 @@ public class StateTreeTest {
                 Collections.singleton(node2), collectAfterOneMarked);
     }
 
+    @Test
+    public void markAsDirty_markedTwice_collectedOnce() {
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, tree.getRootNode());
+        tree.collectDirtyNodes();
+
+        node.markAsDirty();
+        node.markAsDirty();
+
+        Assert.assertTrue(tree.hasDirtyNodes());
+        Assert.assertEquals(Collections.singleton(node),
+                tree.collectDirtyNodes());
+        Assert.assertFalse(tree.hasDirtyNodes());
+    }
+
+    @Test
+    public void collectChanges_nodeChangedAfterCollection_changesCollectedAgain() {
+        StateNode node = new StateNode(ElementPropertyMap.class);
+        StateNodeTest.setParent(node, tree.getRootNode());
+        ElementPropertyMap map = node.getFeature(ElementPropertyMap.class);
+
+        map.setProperty("foo", "bar");
+        tree.collectChanges(change -> {
+        });
+        Assert.assertFalse(tree.hasDirtyNodes());
+
+        map.setProperty("foo", "baz");
+        Assert.assertTrue(tree.hasDirtyNodes());
+
+        List<NodeChange> changes = new ArrayList<>();
+        tree.collectChanges(changes::add);
+
+        Assert.assertEquals(1, changes.size());
+        MapPutChange change = (MapPutChange) changes.get(0);
+        Assert.assertEquals("baz", change.getValue());
+        Assert.assertFalse(tree.hasDirtyNodes());
+
+        tree.collectChanges(changes::add);
+        Assert.assertEquals("Unchanged tree should not produce changes", 1,
+                changes.size());
+    }
+
     @Test
     public void testDirtyNodeCollectionOrder() {
         StateNode rootNode = tree.getRootNode();
@@ -7,6 +7,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -17,6 +18,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.CoreMatchers;
+import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -1282,6 +1284,44 @@ public class BootstrapHandlerTest {
         Assert.assertEquals(bootstrapContext.getUriResolver(), resolver.get());
     }
 
+    @Test
+    public void precompiledBootstrapPage_sameAsFullPage_titleAndScriptPerRequest() {
+        Map<String, BootstrapPageTemplate> templates = new HashMap<>();
+        String[] pages = new String[3];
+        String[] scripts = new String[3];
+        for (int i = 0; i < pages.length; i++) {
+            TestUI ui = new TestUI();
+            ui.getInternals().setSession(session);
+            initUI(ui);
+            ui.getPage().setTitle("Title " + i + " & <more>");
+            if (i == 0) {
+                pages[i] = pageBuilder.getBootstrapPage(context).outerHtml();
+            } else {
+                pages[i] = pageBuilder.getPrecompiledBootstrapPage(context,
+                        templates);
+            }
+
+            Element bootstrapScript = Jsoup.parse(pages[i]).head()
+                    .getElementsByTag("script").stream()
+                    .filter(script -> script.data().contains("//<![CDATA["))
+                    .reduce((first, second) -> second).get();
+            scripts[i] = bootstrapScript.data();
+            Assert.assertThat(scripts[i],
+                    CoreMatchers.containsString("v-uiId"));
+            Assert.assertThat(pages[i], CoreMatchers.containsString(
+                    "<title>Title " + i + " &amp; &lt;more&gt;</title>"));
+        }
+
+        Assert.assertEquals(1, templates.size());
+        for (int i = 1; i < pages.length; i++) {
+            Assert.assertEquals(
+                    pages[0].replace(scripts[0], "").replace("Title 0",
+                            "Title"),
+                    pages[i].replace(scripts[i], "").replace("Title " + i,
+                            "Title"));
+        }
+    }
+
     @Test
     public void useDependencyFilters_removeDependenciesAndAddNewOnes()
             throws ServiceException {
@@ -91,6 +91,12 @@ public class MockServletServiceSessionSetup {
 
             super.modifyBootstrapPage(response);
         }
+
+        @Override
+        public boolean hasBootstrapListeners() {
+            return !bootstrapListeners.isEmpty()
+                    || super.hasBootstrapListeners();
+        }
     }
 
     public class TestVaadinServlet extends VaadinServlet {
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockUI;
+
+public class SessionFootprintTest {
+
+    private MockVaadinServletService service;
+    private VaadinSession session;
+    private List<UI> uis = new ArrayList<>();
+    private WrappedSession wrappedSession;
+
+    @Before
+    public void setUp() {
+        service = new MockVaadinServletService();
+        service.init();
+        session = new AlwaysLockedVaadinSession(service) {
+            @Override
+            public Collection<UI> getUIs() {
+                return Collections.unmodifiableList(uis);
+            }
+
+            @Override
+            public WrappedSession getSession() {
+                return wrappedSession;
+            }
+        };
+        VaadinSession.setCurrent(session);
+    }
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void uiFootprint_countsStateTree() {
+        UI ui = new MockUI(session);
+        UIFootprint empty = new UIFootprint(ui);
+
+        Element div = new Element("div");
+        div.setProperty("foo", "bar");
+        div.appendChild(new Element("span"));
+        ui.getElement().appendChild(div);
+        ui.getInternals().getStateTree().beforeClientResponse(div.getNode(),
+                context -> {
+                });
+
+        UIFootprint footprint = new UIFootprint(ui);
+
+        Assert.assertEquals(empty.getNodeCount() + 2,
+                footprint.getNodeCount());
+        Assert.assertTrue(
+                footprint.getFeatureCount() > empty.getFeatureCount());
+        Assert.assertEquals(1, footprint.getBeforeClientResponseEntryCount());
+        Assert.assertEquals(0, footprint.getConstantCount());
+        Assert.assertTrue(
+                footprint.getEstimatedSize() > empty.getEstimatedSize());
+    }
+
+    @Test
+    public void uiFootprint_contributedCountsSummedByName() {
+        UI ui = new MockUI(session);
+        ui.getInternals().addFootprintContributor(
+                counter -> counter.accept("items", 2));
+        Registration registration = ui.getInternals().addFootprintContributor(
+                counter -> counter.accept("items", 3));
+
+        Assert.assertEquals(Integer.valueOf(5),
+                new UIFootprint(ui).getContributedCounts().get("items"));
+
+        registration.remove();
+
+        Assert.assertEquals(Integer.valueOf(2),
+                new UIFootprint(ui).getContributedCounts().get("items"));
+    }
+
+    @Test
+    public void sessionFootprint_containsUIsAndResources() {
+        uis.add(new MockUI(session));
+        uis.add(new MockUI(session));
+        session.getResourceRegistry().registerResource(new StreamResource(
+                "name", () -> new ByteArrayInputStream(new byte[0])));
+
+        SessionFootprint footprint = new SessionFootprint(session);
+
+        Assert.assertSame(session, footprint.getSession());
+        Assert.assertEquals(2, footprint.getUIFootprints().size());
+        Assert.assertEquals(1, footprint.getStreamResourceCount());
+        Assert.assertTrue(footprint.getEstimatedSize() > footprint
+                .getUIFootprints().get(0).getEstimatedSize());
+    }
+
+    @Test
+    public void requestEnd_footprintListenerNotified() {
+        wrappedSession = Mockito.mock(WrappedSession.class);
+        uis.add(new MockUI(session));
+        List<SessionFootprint> footprints = new ArrayList<>();
+        Registration registration = service
+                .addSessionFootprintListener(footprints::add);
+
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getAttribute(Mockito.anyString()))
+                .thenReturn(System.nanoTime());
+
+        service.requestEnd(request, null, session);
+
+        Assert.assertEquals(1, footprints.size());
+        Assert.assertEquals(1,
+                footprints.get(0).getUIFootprints().size());
+
+        registration.remove();
+        VaadinSession.setCurrent(session);
+        service.requestEnd(request, null, session);
+
+        Assert.assertEquals(1, footprints.size());
+    }
+}
@@ -22,6 +22,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.MalformedURLException;
@@ -29,6 +30,7 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Arrays;
@@ -40,7 +42,9 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 
@@ -128,6 +132,9 @@ public class StaticFileServerTest implements Serializable {
         }
     }
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private OverrideableStaticFileServer fileServer;
     private HttpServletRequest request;
     private HttpServletResponse response;
@@ -675,4 +682,158 @@ public class StaticFileServerTest implements Serializable {
                 responseCode.get());
     }
 
+    @Test
+    public void resourceCacheEnabled_resourceResolvedOnce() throws IOException {
+        enableResourceCache(1024, 1024);
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData, 123000L));
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+            Assert.assertTrue(
+                    fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+            Assert.assertEquals(fileData.length, responseContentLength.get());
+            Assert.assertEquals(Long.valueOf(123000L),
+                    dateHeaders.get("Last-Modified"));
+            Assert.assertEquals("max-age=3600", headers.get("Cache-Control"));
+        }
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+    }
+
+    @Test
+    public void resourceCacheEnabled_matchingETag_notModified()
+            throws IOException {
+        enableResourceCache(1024, 1024);
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData, 123000L));
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        String eTag = headers.get("ETag");
+        Assert.assertNotNull(eTag);
+
+        out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn(eTag);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(0, out.getOutput().length);
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+                responseCode.get());
+    }
+
+    @Test
+    public void resourceCacheEnabled_gzippedVariantServed()
+            throws IOException {
+        enableResourceCache(1024, 1024);
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] gzipData = "compressed".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(servletContext.getResource("/some/file.js.gz"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js.gz",
+                        gzipData));
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, deflate");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(gzipData, out.getOutput());
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn(null);
+        out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Mockito.verify(servletContext, Mockito.times(1))
+                .getResource("/some/file.js.gz");
+    }
+
+    @Test
+    public void resourceCacheEnabled_largeFileTransferredFromFile()
+            throws IOException {
+        enableResourceCache(1024, 16);
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = new byte[100_000];
+        for (int i = 0; i < fileData.length; i++) {
+            fileData[i] = (byte) i;
+        }
+        File file = temporaryFolder.newFile("file.js");
+        Files.write(file.toPath(), fileData);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(file.toURI().toURL());
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+            Assert.assertTrue(
+                    fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+            Assert.assertEquals(fileData.length, responseContentLength.get());
+        }
+    }
+
+    @Test
+    public void resourceCacheEnabled_modificationTimestampOverridden_cacheNotUsed()
+            throws IOException {
+        enableResourceCache(1024, 1024);
+        AtomicInteger timestampCalls = new AtomicInteger();
+        fileServer = new OverrideableStaticFileServer(servletService) {
+            @Override
+            protected long writeModificationTimestamp(URL resourceUrl,
+                    HttpServletRequest request, HttpServletResponse response) {
+                timestampCalls.incrementAndGet();
+                response.setDateHeader("Last-Modified", 42000L);
+                return 42000L;
+            }
+        };
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData, 123000L));
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+            Assert.assertTrue(
+                    fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+            Assert.assertEquals(Long.valueOf(42000L),
+                    dateHeaders.get("Last-Modified"));
+        }
+        Assert.assertEquals(2, timestampCalls.get());
+        Assert.assertNull(headers.get("ETag"));
+    }
+
+    private void enableResourceCache(int size, int maxFileSize) {
+        Mockito.when(configuration.isStaticResourceCacheEnabled())
+                .thenReturn(true);
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(size);
+        Mockito.when(configuration.getStaticResourceCacheMaxFileSize())
+                .thenReturn(maxFileSize);
+        fileServer = new OverrideableStaticFileServer(servletService);
+    }
+
 }
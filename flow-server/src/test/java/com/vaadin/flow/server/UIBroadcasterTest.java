@@ -0,0 +1,220 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.ConstantPoolKey;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.server.UIBroadcaster.Broadcast;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.tests.util.MockUI;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+public class UIBroadcasterTest {
+
+    public static class Data {
+        private final String value;
+
+        public Data(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private VaadinService service = Mockito.mock(VaadinService.class);
+    private UIBroadcaster<Data> broadcaster = new UIBroadcaster<>();
+
+    @Before
+    public void setup() {
+        Mockito.when(service.accessSession(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    ((Command) invocation.getArguments()[1]).execute();
+                    return null;
+                });
+    }
+
+    @After
+    public void cleanup() {
+        CurrentInstance.clearAll();
+    }
+
+    private UI createUI() {
+        VaadinSession session = new MockVaadinSession(service);
+        session.lock();
+        try {
+            return new MockUI(session);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void publish_allSubscribedUIsUpdated() {
+        UI first = createUI();
+        UI second = createUI();
+        List<UI> updated = new ArrayList<>();
+        List<Data> received = new ArrayList<>();
+        for (UI ui : new UI[] { first, second }) {
+            broadcaster.subscribe(ui, data -> {
+                updated.add(UI.getCurrent());
+                received.add(data);
+            });
+        }
+
+        Data data = new Data("foo");
+        broadcaster.publish(data);
+
+        Assert.assertEquals(2, updated.size());
+        Assert.assertTrue(updated.contains(first));
+        Assert.assertTrue(updated.contains(second));
+        Assert.assertSame(data, received.get(0));
+        Assert.assertSame(data, received.get(1));
+    }
+
+    @Test
+    public void registrationRemoved_notUpdated() {
+        UI ui = createUI();
+        List<Data> received = new ArrayList<>();
+        Registration registration = broadcaster.subscribe(ui, received::add);
+
+        registration.remove();
+        broadcaster.publish(new Data("foo"));
+
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(0, broadcaster.getSubscriptionCount());
+    }
+
+    @Test
+    public void uiDetached_subscriptionRemoved() {
+        UI ui = createUI();
+        List<Data> received = new ArrayList<>();
+        broadcaster.subscribe(ui, received::add);
+        Assert.assertEquals(1, broadcaster.getSubscriptionCount());
+
+        VaadinSession session = ui.getSession();
+        session.lock();
+        try {
+            ui.getInternals().setSession(null);
+        } finally {
+            session.unlock();
+        }
+
+        broadcaster.publish(new Data("foo"));
+
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(0, broadcaster.getSubscriptionCount());
+    }
+
+    @Test
+    public void publishWithEncoder_encodedOnceForAllUIs() {
+        AtomicInteger encodeCount = new AtomicInteger();
+        UIBroadcaster<Data> encodingBroadcaster = new UIBroadcaster<>(
+                data -> {
+                    encodeCount.incrementAndGet();
+                    return encode(data);
+                });
+        List<Broadcast<Data>> received = new ArrayList<>();
+        encodingBroadcaster.subscribeToBroadcast(createUI(), received::add);
+        encodingBroadcaster.subscribeToBroadcast(createUI(), received::add);
+
+        Data data = new Data("foo");
+        encodingBroadcaster.publish(data);
+
+        Assert.assertEquals(1, encodeCount.get());
+        Assert.assertEquals(2, received.size());
+        Assert.assertSame(received.get(0), received.get(1));
+        Assert.assertSame(data, received.get(0).getUpdate());
+    }
+
+    @Test
+    public void publishWithEncoder_eachUIGetsOwnCopy() {
+        UIBroadcaster<Data> encodingBroadcaster = new UIBroadcaster<>(
+                this::encode);
+        List<JsonValue> received = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            encodingBroadcaster.subscribeToBroadcast(createUI(),
+                    broadcast -> received.add(broadcast.getJson()));
+        }
+
+        encodingBroadcaster.publish(new Data("foo"));
+
+        JsonObject first = (JsonObject) received.get(0);
+        JsonObject second = (JsonObject) received.get(1);
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(JsonUtils.jsonEquals(first, second));
+
+        first.put("value", "bar");
+        first.getArray("items").set(0, "bar");
+        Assert.assertEquals("foo", second.getString("value"));
+        Assert.assertEquals("foo", second.getArray("items").getString(0));
+    }
+
+    @Test
+    public void publishWithEncoder_constantPoolKeySharedByAllUIs() {
+        UIBroadcaster<Data> encodingBroadcaster = new UIBroadcaster<>(
+                this::encode);
+        List<ConstantPoolKey> received = new ArrayList<>();
+        List<JsonValue> copies = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            encodingBroadcaster.subscribeToBroadcast(createUI(), broadcast -> {
+                received.add(broadcast.getConstantPoolKey());
+                copies.add(broadcast.getJson());
+            });
+        }
+
+        encodingBroadcaster.publish(new Data("foo"));
+        ((JsonObject) copies.get(0)).put("value", "bar");
+
+        Assert.assertSame(received.get(0), received.get(1));
+        Assert.assertEquals(new ConstantPoolKey(encode(new Data("foo")))
+                .getId(), received.get(0).getId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void publishWithoutEncoder_getJsonThrows() {
+        List<Broadcast<Data>> received = new ArrayList<>();
+        broadcaster.subscribeToBroadcast(createUI(), received::add);
+
+        broadcaster.publish(new Data("foo"));
+
+        received.get(0).getJson();
+    }
+
+    private JsonValue encode(Data data) {
+        JsonObject json = Json.createObject();
+        json.put("value", data.getValue());
+        json.put("items", Json.createArray());
+        json.getArray("items").set(0, data.getValue());
+        return json;
+    }
+}
@@ -25,7 +25,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,6 +38,7 @@ import javax.servlet.http.HttpSessionBindingEvent;
 import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
@@ -329,6 +332,48 @@ public class VaadinServiceTest {
                 filters.get(2).getClass());
     }
 
+    @Test
+    public void virtualThreadAccessEnabled_accessQueuePurgedByExecutor() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_VIRTUAL_THREAD_ACCESS, "true");
+        List<Runnable> tasks = new ArrayList<>();
+        ExecutorService executor = Mockito.mock(ExecutorService.class);
+        Mockito.doAnswer(invocation -> tasks
+                .add((Runnable) invocation.getArguments()[0])).when(executor)
+                .execute(Mockito.any(Runnable.class));
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration) {
+            @Override
+            protected ExecutorService createAccessExecutor() {
+                return executor;
+            }
+        };
+        service.init();
+        VaadinSession session = new MockVaadinSession(service);
+        CurrentInstance.clearAll();
+        AtomicInteger runCount = new AtomicInteger();
+
+        session.access(runCount::incrementAndGet);
+
+        Assert.assertEquals("Task should not run on the calling thread", 0,
+                runCount.get());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        Assert.assertEquals(1, runCount.get());
+
+        // Purged on unlock when added by the thread holding the lock
+        session.lock();
+        session.access(runCount::incrementAndGet);
+        session.unlock();
+        Assert.assertEquals(2, runCount.get());
+        Assert.assertEquals(1, tasks.size());
+
+        service.destroy();
+        Mockito.verify(executor).shutdown();
+    }
+
     private static VaadinService createService() {
         ServletConfig servletConfig = new MockServletConfig();
         VaadinServlet servlet = new VaadinServlet();
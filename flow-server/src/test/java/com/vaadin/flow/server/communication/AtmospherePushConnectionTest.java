@@ -19,13 +19,27 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.atmosphere.cpr.AtmosphereResource;
+import org.atmosphere.cpr.Broadcaster;
+import org.atmosphere.cpr.BroadcasterConfig;
 import org.easymock.EasyMock;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
+import com.vaadin.flow.component.Text;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.MockServletServiceSessionSetup;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.AtmospherePushConnection.State;
 
@@ -55,4 +69,85 @@ public class AtmospherePushConnectionTest {
 
         Assert.assertEquals(State.DISCONNECTED, connection.getState());
     }
+
+    private MockServletServiceSessionSetup mocks;
+
+    @After
+    public void cleanup() {
+        if (mocks != null) {
+            mocks.cleanup();
+        }
+    }
+
+    @Test
+    public void coalescingWindow_pushesWithinWindowSentAsOneMessage()
+            throws Exception {
+        mocks = new MockServletServiceSessionSetup();
+        mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_PUSH_COALESCING_WINDOW, "1000");
+        VaadinSession session = mocks.getSession();
+        Mockito.when(session.access(Mockito.any())).thenAnswer(invocation -> {
+            ((Command) invocation.getArguments()[0])
+                    .execute();
+            return null;
+        });
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+
+        List<Object> messages = new ArrayList<>();
+        Future<Object> written = Mockito.mock(Future.class);
+        Mockito.when(written.isDone()).thenReturn(true);
+        Broadcaster broadcaster = Mockito.mock(Broadcaster.class);
+        Mockito.when(broadcaster.broadcast(Mockito.any(),
+                Mockito.any(AtmosphereResource.class)))
+                .thenAnswer(invocation -> {
+                    messages.add(invocation.getArguments()[0]);
+                    return written;
+                });
+        BroadcasterConfig config = Mockito.mock(BroadcasterConfig.class);
+        ScheduledExecutorService scheduler = Mockito
+                .mock(ScheduledExecutorService.class);
+        List<Runnable> scheduled = new ArrayList<>();
+        Mockito.when(scheduler.schedule(Mockito.any(Runnable.class),
+                Mockito.anyLong(), Mockito.eq(TimeUnit.MILLISECONDS)))
+                .thenAnswer(invocation -> {
+                    scheduled.add((Runnable) invocation.getArguments()[0]);
+                    return null;
+                });
+        Mockito.when(config.getScheduledExecutorService())
+                .thenReturn(scheduler);
+        Mockito.when(broadcaster.getBroadcasterConfig()).thenReturn(config);
+        AtmosphereResource resource = Mockito.mock(AtmosphereResource.class);
+        Mockito.when(resource.getBroadcaster()).thenReturn(broadcaster);
+
+        AtmospherePushConnection connection = new AtmospherePushConnection(ui);
+        connection.connect(resource);
+
+        ui.add(new Text("first"));
+        connection.push();
+        Assert.assertEquals(1, messages.size());
+
+        ui.add(new Text("second"));
+        connection.push();
+        ui.add(new Text("third"));
+        connection.push();
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals(1, scheduled.size());
+
+        // Responses to client requests are never deferred
+        connection.push(false);
+        Assert.assertEquals(2, messages.size());
+        Assert.assertTrue(messages.get(1).toString().contains("third"));
+
+        // Nothing left to push when the deferred push runs
+        scheduled.get(0).run();
+        Assert.assertEquals(2, messages.size());
+
+        ui.add(new Text("fourth"));
+        connection.push();
+        Assert.assertEquals(2, scheduled.size());
+        scheduled.get(1).run();
+        Assert.assertEquals(3, messages.size());
+        Assert.assertTrue(messages.get(2).toString().contains("fourth"));
+    }
 }
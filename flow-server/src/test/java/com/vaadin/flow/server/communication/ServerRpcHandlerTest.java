@@ -0,0 +1,145 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.tests.util.MockUI;
+
+public class ServerRpcHandlerTest {
+
+    private ServerRpcHandler handler = new ServerRpcHandler();
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    private static String createMessage(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + i % 26);
+        }
+        return new String(chars);
+    }
+
+    // Returns at most a few chars per read, like a slow network stream
+    private static Reader createSlowReader(String message) {
+        return new StringReader(message) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+    }
+
+    @Test
+    public void getMessage_exactContentLength() throws IOException {
+        String message = createMessage(200);
+
+        Assert.assertEquals(message,
+                handler.getMessage(new StringReader(message), 200));
+        Assert.assertEquals(message,
+                handler.getMessage(createSlowReader(message), 200));
+    }
+
+    @Test
+    public void getMessage_multiByteCharacters_contentLengthInBytes()
+            throws IOException {
+        String message = "{\"value\": \"äö€\"}";
+
+        Assert.assertEquals(message, handler.getMessage(
+                new StringReader(message), message.length() + 5));
+    }
+
+    @Test
+    public void getMessage_contentLengthTooSmall_wholeMessageRead()
+            throws IOException {
+        String message = createMessage(10000);
+
+        Assert.assertEquals(message,
+                handler.getMessage(createSlowReader(message), 100));
+    }
+
+    @Test
+    public void getMessage_unknownContentLength() throws IOException {
+        for (int length : Arrays.asList(0, 1, 4095, 4096, 4097, 100000)) {
+            String message = createMessage(length);
+
+            Assert.assertEquals(message,
+                    handler.getMessage(new StringReader(message), -1));
+            Assert.assertEquals(message,
+                    handler.getMessage(new StringReader(message)));
+        }
+    }
+
+    @Test
+    public void getMessage_largerThanMaxBuffer() throws IOException {
+        String message = createMessage(200000);
+
+        Assert.assertEquals(message, handler.getMessage(
+                new StringReader(message), message.length()));
+    }
+
+    @Test
+    public void getMessage_consecutiveMessages_previousContentNotIncluded()
+            throws IOException {
+        handler.getMessage(new StringReader(createMessage(3000)), 3000);
+
+        Assert.assertEquals("{}",
+                handler.getMessage(new StringReader("{}"), 2));
+    }
+
+    @Test
+    public void handleRpc_overriddenGetMessage_calledWithContentLength()
+            throws Exception {
+        List<String> messages = new ArrayList<>();
+        String message = createMessage(10000);
+        ServerRpcHandler handler = new ServerRpcHandler() {
+            @Override
+            protected String getMessage(Reader reader) throws IOException {
+                messages.add(super.getMessage(reader));
+                return "";
+            }
+
+            @Override
+            protected String getMessage(Reader reader, int contentLength)
+                    throws IOException {
+                Assert.assertEquals(message.length(), contentLength);
+                return super.getMessage(reader, contentLength);
+            }
+        };
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getContentLength()).thenReturn(message.length());
+
+        handler.handleRpc(new MockUI(), new StringReader(message), request);
+
+        Assert.assertEquals(Collections.singletonList(message), messages);
+    }
+}
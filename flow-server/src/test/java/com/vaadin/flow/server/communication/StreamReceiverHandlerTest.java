@@ -24,12 +24,15 @@ import org.mockito.MockitoAnnotations;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.MockServletConfig;
 import com.vaadin.flow.server.StreamReceiver;
 import com.vaadin.flow.server.StreamResourceRegistry;
 import com.vaadin.flow.server.StreamVariable;
+import com.vaadin.flow.server.StreamVariable.StreamingProgressEvent;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinServlet;
@@ -296,4 +299,74 @@ public class StreamReceiverHandlerTest {
         Assert.assertEquals("foobar", new String(
                 ((ByteArrayOutputStream) outputStream).toByteArray()));
     }
+
+    @Test
+    public void inputArrivesInSmallChunks_writtenInOneBuffer()
+            throws IOException {
+        ServletInputStream content = createInputStream("foobar");
+        inputStream = new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return content.isFinished();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+
+            @Override
+            public int read() throws IOException {
+                return content.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                // Like a slow network stream
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        handler.handleRequest(session, request, response, streamReceiver,
+                String.valueOf(uiId), expectedSecurityKey);
+
+        verify(outputStream).write(Mockito.any(byte[].class), Mockito.eq(0),
+                Mockito.eq(6));
+        verify(outputStream, Mockito.times(1)).write(Mockito.any(byte[].class),
+                Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    public void listenProgress_intermediateEventAccessesUI_finalEventSentOnce()
+            throws IOException {
+        when(streamVariable.listenProgress()).thenReturn(true);
+        DeploymentConfiguration configuration = mock(
+                DeploymentConfiguration.class);
+        when(configuration.getUploadBufferSize()).thenReturn(4);
+        when(session.getConfiguration()).thenReturn(configuration);
+        List<Command> accessCommands = new ArrayList<>();
+        when(ui.access(Mockito.any(Command.class))).thenAnswer(invocation -> {
+            accessCommands.add((Command) invocation.getArguments()[0]);
+            return null;
+        });
+        List<Long> progress = new ArrayList<>();
+        Mockito.doAnswer(invocation -> progress
+                .add(((StreamingProgressEvent) invocation.getArguments()[0])
+                        .getBytesReceived()))
+                .when(streamVariable).onProgress(Mockito.any());
+
+        handler.handleRequest(session, request, response, streamReceiver,
+                String.valueOf(uiId), expectedSecurityKey);
+
+        Assert.assertEquals(1, accessCommands.size());
+        Assert.assertEquals(Collections.singletonList(6L), progress);
+
+        // Access task run after the upload has finished sends nothing
+        accessCommands.get(0).execute();
+        Assert.assertEquals(Collections.singletonList(6L), progress);
+    }
 }
@@ -16,6 +16,7 @@
 package com.vaadin.flow.server.communication;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,6 +50,7 @@ import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
@@ -352,6 +354,45 @@ public class UidlWriterTest {
         }
     }
 
+    @Test
+    public void writeUidl_sameContentAsCreateUidl() throws Exception {
+        UI createdUI = initializeUIForDependenciesTest(new TestUI());
+        UI writtenUI = initializeUIForDependenciesTest(new TestUI());
+        for (UI ui : Arrays.asList(createdUI, writtenUI)) {
+            ui.add(new ComponentWithAllDependencyTypes(), new ChildComponent());
+            ui.getElement().setProperty("quoted", "\"value\"");
+            ui.getElement().addEventListener("click", event -> {
+            }).addEventData("event.button");
+            ui.getPage().executeJs("console.log($0)", "message");
+        }
+
+        JsonObject created = new UidlWriter().createUidl(createdUI, false);
+
+        StringWriter writer = new StringWriter();
+        new UidlWriter().writeUidl(writtenUI, false, writer);
+        JsonObject written = Json.parse(writer.toString());
+
+        assertTrue(created.hasKey("changes"));
+        assertTrue(created.hasKey("constants"));
+        assertTrue(created.hasKey(JsonConstants.UIDL_KEY_EXECUTE));
+        assertTrue("Expected " + created.toJson() + " but got "
+                + written.toJson(), JsonUtils.jsonEquals(created, written));
+    }
+
+    @Test
+    public void writeUidl_noChanges_noChangesKey() throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, writer);
+        JsonObject written = Json.parse(writer.toString());
+
+        assertFalse(written.hasKey("changes"));
+        assertTrue(written.hasKey(ApplicationConstants.SERVER_SYNC_ID));
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies,
             String expectedPrefix) {
         assertThat("Should have an inline dependency", inlineDependencies,
@@ -226,6 +226,17 @@ public class PublishedServerEventHandlerRpcHandlerTest {
         Assert.assertTrue(component.isInvoked);
     }
 
+    @Test
+    public void methodIsInvokedRepeatedly_eachInstanceInvoked() {
+        for (int i = 0; i < 3; i++) {
+            ComponentWithMethod component = new ComponentWithMethod();
+            PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                    component.getClass(), "method", Json.createArray());
+
+            Assert.assertTrue(component.isInvoked);
+        }
+    }
+
     @Test
     public void methodIsInvokedOnCompositeContent() {
         CompositeOfComponentWithMethod composite = new CompositeOfComponentWithMethod();
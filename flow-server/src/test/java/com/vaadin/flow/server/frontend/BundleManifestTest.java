@@ -0,0 +1,137 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+
+public class BundleManifestTest {
+
+    private static final String STATS = "{\"hash\": \"%s\","
+            + "\"assetsByChunkName\": {\"index\": \"build/index.js\","
+            + "\"index.es5\": \"build/index.es5.js\"},"
+            + "\"chunks\": [{\"modules\": ["
+            + "{\"name\": \"./frontend/my-element.js?babel-target=es5\","
+            + "\"source\": \"es5 source\"},"
+            + "{\"name\": \"./frontend/my-element.js?babel-target=es6\","
+            + "\"source\": \"%s\"}]}]}";
+
+    private VaadinService service = Mockito.mock(VaadinService.class);
+    private DeploymentConfiguration configuration = Mockito
+            .mock(DeploymentConfiguration.class);
+    private StatsClassLoader classLoader = new StatsClassLoader();
+
+    private static class StatsClassLoader extends ClassLoader {
+        private String stats;
+        private int reads;
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            reads++;
+            return new ByteArrayInputStream(
+                    stats.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class TestContext implements VaadinContext {
+        private final Map<Class<?>, Object> attributes = new HashMap<>();
+
+        @Override
+        public <T> T getAttribute(Class<T> type,
+                Supplier<T> defaultValueSupplier) {
+            return type.cast(attributes.computeIfAbsent(type,
+                    key -> defaultValueSupplier.get()));
+        }
+
+        @Override
+        public <T> void setAttribute(T value) {
+            attributes.put(value.getClass(), value);
+        }
+
+        @Override
+        public void removeAttribute(Class<?> clazz) {
+            attributes.remove(clazz);
+        }
+    }
+
+    @Before
+    public void setup() {
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+        Mockito.when(service.getClassLoader()).thenReturn(classLoader);
+        Mockito.when(service.getContext()).thenReturn(new TestContext());
+        Mockito.when(configuration.getStringProperty(Mockito.anyString(),
+                Mockito.anyString()))
+                .thenAnswer(invocation -> invocation.getArguments()[1]);
+        classLoader.stats = String.format(STATS, "1111", "first source");
+    }
+
+    @Test
+    public void parse_chunksInOrder_modulesIndexed() {
+        BundleManifest manifest = BundleManifest.parse(classLoader.stats);
+
+        Assert.assertEquals("1111", manifest.getHash());
+        Assert.assertArrayEquals(new String[] { "index", "index.es5" },
+                manifest.getChunks().keySet().toArray());
+        Assert.assertEquals("build/index.es5.js",
+                manifest.getChunks().get("index.es5"));
+        Assert.assertEquals("first source",
+                manifest.getModuleSource("./frontend/my-element.js"));
+        Assert.assertEquals("first source",
+                manifest.getModuleSource("my-element"));
+        Assert.assertNull(manifest.getModuleSource("./frontend/other.js"));
+    }
+
+    @Test
+    public void productionMode_statsReadOnce() throws IOException {
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+
+        BundleManifest manifest = BundleManifest.getInstance(service);
+        classLoader.stats = String.format(STATS, "2222", "second source");
+
+        Assert.assertSame(manifest, BundleManifest.getInstance(service));
+        Assert.assertEquals(1, classLoader.reads);
+    }
+
+    @Test
+    public void developmentMode_parsedAgainOnlyWhenHashChanges()
+            throws IOException {
+        BundleManifest manifest = BundleManifest.getInstance(service);
+        Assert.assertSame(manifest, BundleManifest.getInstance(service));
+
+        classLoader.stats = String.format(STATS, "2222", "second source");
+        BundleManifest updated = BundleManifest.getInstance(service);
+
+        Assert.assertNotSame(manifest, updated);
+        Assert.assertEquals("second source",
+                updated.getModuleSource("./frontend/my-element.js"));
+        Assert.assertEquals(3, classLoader.reads);
+    }
+}